@@ -0,0 +1,242 @@
+package omm.mtk.easy.api.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Génère à la compilation le registre des composants easy-api ({@code EasyApiComponentRegistry}),
+ * son fichier {@code META-INF/services} et l'index {@code META-INF/easy-api/components-<package>.idx},
+ * pour démarrer sans scanner le classpath. L'index porte le package commun du module : les index de
+ * plusieurs modules réunis dans un fat jar ne s'écrasent pas.
+ * <p>
+ * Les classes annotées sont collectées à chaque round. La source du registre est écrite au premier round
+ * qui en trouve (jamais au dernier : javac avertirait qu'elle n'y est plus traitée), l'index et le fichier
+ * {@code META-INF/services} au dernier round. Le registre lit ses composants dans l'index : un composant
+ * généré par un autre processor après l'écriture de la source y figure aussi, sans fabrique. Comme pour
+ * {@code ClassScanner}, seules les classes de premier niveau et les classes membres statiques sont retenues.
+ *
+ * @author mahatoky rasolonirina
+ */
+@SupportedAnnotationTypes({
+        "omm.mtk.easy.api.annotation.Component",
+        "omm.mtk.easy.api.annotation.Service",
+        "omm.mtk.easy.api.annotation.Repository",
+        "omm.mtk.easy.api.annotation.RestController",
+        "omm.mtk.easy.api.annotation.ControllerAdvice",
+        "omm.mtk.easy.api.annotation.Configuration",
+        "omm.mtk.easy.api.annotation.ConfigurationProperties"
+})
+public class EasyApiProcessor extends AbstractProcessor {
+    static final String REGISTRY_INTERFACE = "omm.mtk.easy.api.core.ComponentRegistry";
+    static final String REGISTRY_NAME = "EasyApiComponentRegistry";
+    static final String COMPONENT_INDEX_DIR = "META-INF/easy-api/";
+    
+    // nom binaire -> composant, trié pour une sortie stable
+    private final Map<String, ComponentInfo> components = new TreeMap<>();
+    // Fixé à l'écriture de la source, null avant
+    private String basePackage;
+    
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+    
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS && !element.getModifiers().contains(Modifier.ABSTRACT) &&
+                        isInstantiable((TypeElement) element)) {
+                    TypeElement type = (TypeElement) element;
+                    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+                    components.put(binaryName, new ComponentInfo(type, binaryName));
+                }
+            }
+        }
+        
+        if (components.isEmpty()) {
+            return false;
+        }
+        if (roundEnv.processingOver()) {
+            writeResources();
+        } else if (basePackage == null) {
+            basePackage = commonPackage();
+            writeSource();
+        }
+        return false;
+    }
+    
+    /**
+     * Classe de premier niveau ou classe membre statique : les classes internes, locales et anonymes
+     * ne peuvent pas être instanciées par le contexte.
+     */
+    private static boolean isInstantiable(TypeElement type) {
+        switch (type.getNestingKind()) {
+            case TOP_LEVEL:
+                return true;
+            case MEMBER:
+                return type.getModifiers().contains(Modifier.STATIC) && isInstantiable((TypeElement) type.getEnclosingElement());
+            default:
+                return false;
+        }
+    }
+    
+    private void writeSource() {
+        String registryName = registryName();
+        try {
+            JavaFileObject source = processingEnv.getFiler().createSourceFile(registryName);
+            try (Writer writer = source.openWriter()) {
+                writer.write(generateSource());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate " + registryName + ": " + e.getMessage());
+        }
+    }
+    
+    private void writeResources() {
+        try {
+            FileObject services = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + REGISTRY_INTERFACE);
+            try (Writer writer = services.openWriter()) {
+                writer.write(registryName() + "\n");
+            }
+            
+            // Lu par le registre, et par ClassScanner quand le registre ne couvre pas le package scanné
+            FileObject index = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT, "", componentIndex(basePackage));
+            try (Writer writer = index.openWriter()) {
+                for (String binaryName : components.keySet()) {
+                    writer.write(binaryName + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate the component index: " + e.getMessage());
+        }
+    }
+    
+    private String registryName() {
+        return basePackage.isEmpty() ? REGISTRY_NAME : basePackage + "." + REGISTRY_NAME;
+    }
+    
+    static String componentIndex(String basePackage) {
+        return COMPONENT_INDEX_DIR + "components-" + (basePackage.isEmpty() ? "default" : basePackage) + ".idx";
+    }
+    
+    private String generateSource() {
+        StringBuilder out = new StringBuilder();
+        if (!basePackage.isEmpty()) {
+            out.append("package ").append(basePackage).append(";\n\n");
+        }
+        out.append("import java.util.HashMap;\n")
+                .append("import java.util.Map;\n")
+                .append("import java.util.Set;\n")
+                .append("import java.util.function.Supplier;\n\n")
+                .append("/**\n * Généré par EasyApiProcessor, ne pas modifier.\n */\n")
+                .append("public final class ").append(REGISTRY_NAME).append(" implements ").append(REGISTRY_INTERFACE).append(" {\n\n")
+                .append("    @Override\n")
+                .append("    public String basePackage() {\n")
+                .append("        return \"").append(basePackage).append("\";\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public Set<Class<?>> componentClasses() {\n")
+                .append("        return ").append(REGISTRY_INTERFACE).append(".loadIndex(").append(REGISTRY_NAME).append(".class, \"")
+                .append(componentIndex(basePackage)).append("\");\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public Map<Class<?>, Supplier<Object>> factories() {\n")
+                .append("        Map<Class<?>, Supplier<Object>> factories = new HashMap<>();\n");
+        
+        for (ComponentInfo component : components.values()) {
+            if (component.accessible && component.defaultConstructorOnly) {
+                out.append("        factories.put(").append(component.canonicalName).append(".class, ")
+                        .append(component.canonicalName).append("::new);\n");
+            }
+        }
+        
+        out.append("        return factories;\n")
+                .append("    }\n")
+                .append("}\n");
+        return out.toString();
+    }
+    
+    private String commonPackage() {
+        String common = null;
+        for (ComponentInfo component : components.values()) {
+            String pkg = component.packageName;
+            if (common == null) {
+                common = pkg;
+            }
+            while (!common.isEmpty() && !(pkg.equals(common) || pkg.startsWith(common + "."))) {
+                int dot = common.lastIndexOf('.');
+                common = dot < 0 ? "" : common.substring(0, dot);
+            }
+        }
+        return common == null ? "" : common;
+    }
+    
+    private class ComponentInfo {
+        final String binaryName;
+        final String canonicalName;
+        final String packageName;
+        final boolean accessible;
+        final boolean defaultConstructorOnly;
+        
+        ComponentInfo(TypeElement type, String binaryName) {
+            this.binaryName = binaryName;
+            this.canonicalName = type.getQualifiedName().toString();
+            this.packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+            this.accessible = isPublic(type);
+            this.defaultConstructorOnly = hasOnlyPublicNoArgConstructor(type);
+        }
+        
+        private boolean isPublic(TypeElement type) {
+            Element current = type;
+            while (current instanceof TypeElement) {
+                TypeElement currentType = (TypeElement) current;
+                if (!currentType.getModifiers().contains(Modifier.PUBLIC)) {
+                    return false;
+                }
+                if (currentType.getNestingKind() == NestingKind.MEMBER && !currentType.getModifiers().contains(Modifier.STATIC)) {
+                    return false;
+                }
+                current = currentType.getEnclosingElement();
+            }
+            return true;
+        }
+        
+        // Même règle que EasyApplicationContext.createBeanInstance : un constructeur public
+        // avec paramètres est prioritaire, la fabrique n'est donc générée qu'en son absence
+        private boolean hasOnlyPublicNoArgConstructor(TypeElement type) {
+            boolean noArg = false;
+            for (Element member : type.getEnclosedElements()) {
+                if (member.getKind() == ElementKind.CONSTRUCTOR && member.getModifiers().contains(Modifier.PUBLIC)) {
+                    if (((ExecutableElement) member).getParameters().isEmpty()) {
+                        noArg = true;
+                    } else {
+                        return false;
+                    }
+                }
+            }
+            return noArg;
+        }
+    }
+}
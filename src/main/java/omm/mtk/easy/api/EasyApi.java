@@ -1,30 +1,56 @@
 package omm.mtk.easy.api;
 
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import omm.mtk.easy.api.core.ConfigurationPropertiesBinder;
 import omm.mtk.easy.api.core.EasyApplicationContext;
+import omm.mtk.easy.api.core.EasyLogger;
+import omm.mtk.easy.api.core.ServerProperties;
 
 public class EasyApi {
+    private static final EasyLogger log = EasyLogger.getLogger(EasyApi.class);
     
     private static EasyApplicationContext context;
     
     public static void run(Class<?> primarySource, String... args) {
         String basePackage = primarySource.getPackage().getName();
-        System.out.println("🎯 Scanning package: " + basePackage);
+        log.debug("Scanning package: {}", basePackage);
         
-        Vertx vertx = Vertx.vertx();
+        // Les options de Vert.x dépendent de server.*, lu avant le contexte
+        JsonObject properties = EasyApplicationContext.loadApplicationProperties();
+        ServerProperties serverProperties = new ServerProperties();
+        new ConfigurationPropertiesBinder(properties).bind(serverProperties, "server");
+        Vertx vertx = createVertx(serverProperties);
         
         try {
-            context = new EasyApplicationContext(vertx, basePackage);
+            context = new EasyApplicationContext(vertx, properties, basePackage);
         } catch (Exception e) {
-            System.err.println("❌ Context creation failed: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Context creation failed: " + e.getMessage(), e);
             return;
         }
         
-        int port = Integer.parseInt(System.getProperty("server.port", "8080"));
+        // -Dserver.port reste prioritaire sur application.properties
+        int port = Integer.getInteger("server.port", serverProperties.getPort());
         context.startServer(port);
     }
     
+    /**
+     * Vert.x utilise epoll (Linux) quand {@code server.prefer-native-transport} ou {@code server.unix-socket} est actif et que
+     * netty-transport-native-epoll est sur le classpath ; sinon il retombe sur NIO.
+     */
+    private static Vertx createVertx(ServerProperties serverProperties) {
+        // Une socket Unix n'existe qu'avec le transport natif
+        boolean preferNative = serverProperties.isPreferNativeTransport() || serverProperties.getUnixSocket() != null;
+        Vertx vertx = Vertx.vertx(new VertxOptions().setPreferNativeTransport(preferNative));
+        if (preferNative && !vertx.isNativeTransportEnabled()) {
+            Throwable cause = vertx.unavailableNativeTransportCause();
+            log.warn("Native transport unavailable, falling back to NIO: {}",
+                    cause != null ? cause.getMessage() : "unknown reason");
+        }
+        return vertx;
+    }
+    
     public static void run(Class<?> primarySource) {
         run(primarySource, new String[]{});
     }
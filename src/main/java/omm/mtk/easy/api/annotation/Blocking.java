@@ -0,0 +1,18 @@
+package omm.mtk.easy.api.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Exécute la méthode du contrôleur sur un pool de workers borné plutôt que sur l'event loop.
+ * Le pool est configuré par {@code easy.worker.<nom>.size}, {@code .queue-size} et {@code .virtual}.
+ *
+ * @author mahatoky rasolonirina
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Blocking {
+    String value() default "default"; // nom du pool
+}
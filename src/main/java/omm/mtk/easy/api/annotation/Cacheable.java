@@ -0,0 +1,33 @@
+package omm.mtk.easy.api.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Met en cache la réponse encodée d'une route {@code @GetMapping} : tant que l'entrée est valide,
+ * le contrôleur n'est pas appelé et les octets déjà sérialisés sont renvoyés tels quels.
+ * <p>
+ * La clé est le chemin de la requête (donc les variables de chemin), complété des paramètres
+ * de requête et en-têtes listés. Seules les réponses 200 sont mises en cache.
+ * Invalidation par programme via le bean {@code ResponseCacheManager}.
+ *
+ * @author mahatoky rasolonirina
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cacheable {
+    String value() default ""; // nom du cache, Contrôleur.méthode par défaut
+    
+    String[] params() default {};
+    
+    String[] headers() default {};
+    
+    long ttl() default 60; // en secondes
+    
+    int maxEntries() default 1000;
+    
+    // Avec server.compression.enabled, garde aussi la variante gzip du corps pour ne la compresser qu'une fois
+    boolean precompress() default false;
+}
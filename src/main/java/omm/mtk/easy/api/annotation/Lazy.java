@@ -0,0 +1,20 @@
+package omm.mtk.easy.api.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sur une classe : le bean n'est créé qu'à sa première utilisation.
+ * Sur un point d'injection : un proxy (type interface) ou un {@code Supplier<T>} est injecté,
+ * et le bean n'est résolu qu'au premier appel.
+ * {@code @Lazy(false)} garde un bean eager même avec {@code easy.beans.lazy-init=true}.
+ *
+ * @author mahatoky rasolonirina
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.FIELD, ElementType.PARAMETER})
+public @interface Lazy {
+    boolean value() default true;
+}
@@ -0,0 +1,29 @@
+package omm.mtk.easy.api.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Portée d'un bean : {@code singleton} (par défaut), {@code prototype} (une nouvelle instance
+ * à chaque injection ou {@code getBean}) ou {@code pooled} (instances réutilisées, prêtées
+ * le temps d'une requête depuis un pool borné par event loop).
+ * <p>
+ * Un bean {@code pooled} s'obtient en paramètre d'une méthode de contrôleur, rendu au pool
+ * à la fin de la réponse, ou via {@code EasyApplicationContext.leaseBean}.
+ *
+ * @author mahatoky rasolonirina
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Scope {
+    String SINGLETON = "singleton";
+    String PROTOTYPE = "prototype";
+    String POOLED = "pooled";
+    
+    String value() default SINGLETON;
+    
+    // Instances gardées au repos par event loop pour un bean pooled, 0 = easy.beans.pool-size
+    int poolSize() default 0;
+}
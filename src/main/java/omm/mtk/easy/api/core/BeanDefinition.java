@@ -0,0 +1,102 @@
+package omm.mtk.easy.api.core;
+
+import omm.mtk.easy.api.annotation.Scope;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plan de création d'un bean, établi avant toute instanciation : constructeur retenu
+ * et, pour chaque point d'injection, le bean qui le fournit.
+ * <p>
+ * Les dépendances de constructeur et celles des champs ou méthodes {@code @Autowired}
+ * sont distinguées : seules les premières empêchent de créer deux beans d'un même cycle.
+ * Un point d'injection paresseux (proxy ou {@code Supplier}) ne crée aucune dépendance.
+ * Un bean {@code prototype} ou {@code pooled} n'est jamais enregistré : une instance est créée
+ * à chaque injection, ou prise dans {@code pool}.
+ *
+ * @author mahatoky rasolonirina
+ */
+final class BeanDefinition {
+    final Class<?> beanClass;
+    final String name;
+    final boolean configuration;
+    final boolean lazy;
+    final String scope;
+    BeanPool pool;
+    Constructor<?> constructor;
+    // Injection par paramètre du constructeur, null pour un paramètre @Value
+    InjectionPoint[] constructorArguments = new InjectionPoint[0];
+    final Map<Field, InjectionPoint> fieldInjections = new LinkedHashMap<>();
+    final Map<Method, InjectionPoint[]> methodInjections = new LinkedHashMap<>();
+    final Set<BeanDefinition> constructorDependencies = new LinkedHashSet<>();
+    final Set<BeanDefinition> dependencies = new LinkedHashSet<>();
+    
+    BeanDefinition(Class<?> beanClass, String name, boolean configuration, boolean lazy, String scope) {
+        this.beanClass = beanClass;
+        this.name = name;
+        this.configuration = configuration;
+        this.lazy = lazy;
+        this.scope = scope;
+    }
+    
+    boolean isSingleton() {
+        return Scope.SINGLETON.equals(scope);
+    }
+    
+    void addDependency(InjectionPoint injection, boolean constructorInjection) {
+        if (injection.kind != InjectionPoint.Kind.DIRECT) {
+            return;
+        }
+        dependencies.add(injection.provider.owner);
+        if (constructorInjection) {
+            constructorDependencies.add(injection.provider.owner);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return beanClass.getName();
+    }
+    
+    /**
+     * Un bean disponible à l'injection : un composant, ou une méthode {@code @Component}
+     * d'une {@code @Configuration} dont {@code owner} est alors la configuration.
+     */
+    static final class Provider {
+        final String name;
+        final Class<?> type;
+        final BeanDefinition owner;
+        final boolean primary;
+        
+        Provider(String name, Class<?> type, BeanDefinition owner, boolean primary) {
+            this.name = name;
+            this.type = type;
+            this.owner = owner;
+            this.primary = primary;
+        }
+    }
+    
+    /**
+     * Ce qui est injecté à un point d'injection : le bean lui-même, un proxy de son interface
+     * ou un {@code Supplier} mémoïsé, ces deux derniers ne créant le bean qu'au premier appel.
+     */
+    static final class InjectionPoint {
+        enum Kind {DIRECT, PROXY, SUPPLIER}
+        
+        final Provider provider;
+        final Class<?> type;
+        final Kind kind;
+        
+        InjectionPoint(Provider provider, Class<?> type, Kind kind) {
+            this.provider = provider;
+            this.type = type;
+            this.kind = kind;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package omm.mtk.easy.api.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Graphe des dépendances entre beans, découpé en composantes fortement connexes (Tarjan).
+ * <p>
+ * Chaque composante est initialisée d'un bloc, après toutes celles dont elle dépend : un bean seul
+ * dans le cas général, plusieurs beans reliés uniquement par des champs ou méthodes {@code @Autowired}
+ * en cas de cycle. Un cycle qui passe par un constructeur ne peut pas être résolu et fait échouer
+ * le démarrage. Les composantes indépendantes s'initialisent en parallèle sur un {@link ForkJoinPool}.
+ *
+ * @author mahatoky rasolonirina
+ */
+final class BeanGraph {
+    private final List<List<BeanDefinition>> components = new ArrayList<>();
+    private final Map<BeanDefinition, List<BeanDefinition>> componentOf = new IdentityHashMap<>();
+    
+    BeanGraph(Collection<BeanDefinition> definitions) {
+        new Tarjan().run(definitions);
+        for (List<BeanDefinition> component : components) {
+            checkConstructorCycle(component);
+        }
+    }
+    
+    /**
+     * @return les composantes, chacune après celles dont elle dépend
+     */
+    List<List<BeanDefinition>> getComponents() {
+        return components;
+    }
+    
+    /**
+     * Initialise toutes les composantes en respectant les dépendances.
+     * Avec {@code parallelism <= 1}, elles sont traitées dans l'ordre sur le thread appelant.
+     */
+    void initialize(Consumer<List<BeanDefinition>> initializer, int parallelism) {
+        if (parallelism <= 1 || components.size() <= 1) {
+            components.forEach(initializer);
+            return;
+        }
+        
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger threadCount = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("easy-init-" + threadCount.getAndIncrement());
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }, null, false);
+        
+        try {
+            Map<List<BeanDefinition>, CompletableFuture<Void>> futures = new IdentityHashMap<>();
+            for (List<BeanDefinition> component : components) {
+                CompletableFuture<?>[] prerequisites = dependenciesOf(component).stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture<?>[]::new);
+                futures.put(component, CompletableFuture.allOf(prerequisites)
+                        .thenRunAsync(() -> initializer.accept(component), pool));
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    private Collection<List<BeanDefinition>> dependenciesOf(List<BeanDefinition> component) {
+        Set<List<BeanDefinition>> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BeanDefinition definition : component) {
+            for (BeanDefinition dependency : definition.dependencies) {
+                result.add(componentOf.get(dependency));
+            }
+        }
+        result.remove(component);
+        return result;
+    }
+    
+    private void checkConstructorCycle(List<BeanDefinition> component) {
+        for (BeanDefinition definition : component) {
+            for (BeanDefinition dependency : definition.constructorDependencies) {
+                if (componentOf.get(dependency) == component) {
+                    throw new IllegalStateException("Circular constructor dependency between beans: " +
+                            component.stream().map(d -> d.beanClass.getSimpleName()).collect(Collectors.joining(", ")) +
+                            " (" + definition.beanClass.getSimpleName() + " needs " + dependency.beanClass.getSimpleName() +
+                            " in its constructor)");
+                }
+            }
+        }
+    }
+    
+    private class Tarjan {
+        private final Map<BeanDefinition, Integer> index = new HashMap<>();
+        private final Map<BeanDefinition, Integer> lowLink = new HashMap<>();
+        private final Deque<BeanDefinition> stack = new ArrayDeque<>();
+        private final Map<BeanDefinition, Boolean> onStack = new HashMap<>();
+        private int counter;
+        
+        void run(Collection<BeanDefinition> definitions) {
+            for (BeanDefinition definition : definitions) {
+                if (!index.containsKey(definition)) {
+                    visit(definition);
+                }
+            }
+        }
+        
+        private void visit(BeanDefinition definition) {
+            index.put(definition, counter);
+            lowLink.put(definition, counter);
+            counter++;
+            stack.push(definition);
+            onStack.put(definition, true);
+            
+            for (BeanDefinition dependency : definition.dependencies) {
+                if (!index.containsKey(dependency)) {
+                    visit(dependency);
+                    lowLink.put(definition, Math.min(lowLink.get(definition), lowLink.get(dependency)));
+                } else if (onStack.getOrDefault(dependency, false)) {
+                    lowLink.put(definition, Math.min(lowLink.get(definition), index.get(dependency)));
+                }
+            }
+            
+            // Racine d'une composante : toutes ses dépendances ont déjà été émises
+            if (lowLink.get(definition).equals(index.get(definition))) {
+                List<BeanDefinition> component = new ArrayList<>();
+                BeanDefinition member;
+                do {
+                    member = stack.pop();
+                    onStack.put(member, false);
+                    component.add(member);
+                    componentOf.put(member, component);
+                } while (member != definition);
+                components.add(component);
+            }
+        }
+    }
+}
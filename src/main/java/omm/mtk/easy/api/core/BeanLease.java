@@ -0,0 +1,43 @@
+package omm.mtk.easy.api.core;
+
+/**
+ * Instance d'un bean prêtée par son pool, à rendre avec {@link #close()} :
+ * <pre>
+ * try (BeanLease&lt;Parser&gt; parser = context.leaseBean(Parser.class)) {
+ *     parser.get().parse(input);
+ * }
+ * </pre>
+ * Pour un bean qui n'est pas {@code pooled}, {@code close()} ne fait rien.
+ *
+ * @author mahatoky rasolonirina
+ */
+public final class BeanLease<T> implements AutoCloseable {
+    private final T instance;
+    private final BeanPool pool;
+    private boolean released;
+    
+    BeanLease(T instance, BeanPool pool) {
+        this.instance = instance;
+        this.pool = pool;
+    }
+    
+    public T get() {
+        if (released) {
+            throw new IllegalStateException("Bean lease already released");
+        }
+        return instance;
+    }
+    
+    /**
+     * Rend l'instance au pool ; un second appel est sans effet.
+     */
+    @Override
+    public void close() {
+        if (!released) {
+            released = true;
+            if (pool != null) {
+                pool.release(instance);
+            }
+        }
+    }
+}
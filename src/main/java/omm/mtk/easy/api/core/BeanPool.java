@@ -0,0 +1,84 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pool des instances d'un bean {@code @Scope("pooled")}.
+ * <p>
+ * Sur un event loop, chaque contexte Vert.x a sa propre pile, lue et écrite uniquement par son
+ * thread : ni verrou ni contention. Hors event loop (workers, threads applicatifs), une file
+ * partagée sert de repli. Chaque pile garde au plus {@code maxIdle} instances au repos ; une
+ * instance rendue au-delà est abandonnée, et une nouvelle est créée quand la pile est vide.
+ *
+ * @author mahatoky rasolonirina
+ */
+final class BeanPool {
+    private final String beanName;
+    private final int maxIdle;
+    private final Supplier<Object> factory;
+    private final Map<Context, ArrayDeque<Object>> eventLoopIdle = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Object> sharedIdle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sharedIdleCount = new AtomicInteger();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    
+    BeanPool(String beanName, int maxIdle, Supplier<Object> factory) {
+        this.beanName = beanName;
+        this.maxIdle = maxIdle;
+        this.factory = factory;
+    }
+    
+    BeanLease<Object> lease() {
+        Context context = eventLoopContext();
+        Object instance;
+        if (context != null) {
+            instance = eventLoopIdle.computeIfAbsent(context, key -> new ArrayDeque<>(maxIdle)).pollFirst();
+        } else {
+            instance = sharedIdle.poll();
+            if (instance != null) {
+                sharedIdleCount.decrementAndGet();
+            }
+        }
+        
+        if (instance != null) {
+            reused.increment();
+        } else {
+            instance = factory.get();
+            created.increment();
+        }
+        return new BeanLease<>(instance, this);
+    }
+    
+    void release(Object instance) {
+        Context context = eventLoopContext();
+        if (context != null) {
+            ArrayDeque<Object> idle = eventLoopIdle.computeIfAbsent(context, key -> new ArrayDeque<>(maxIdle));
+            if (idle.size() < maxIdle) {
+                idle.addFirst(instance);
+            }
+        } else if (sharedIdleCount.incrementAndGet() <= maxIdle) {
+            sharedIdle.offer(instance);
+        } else {
+            sharedIdleCount.decrementAndGet();
+        }
+    }
+    
+    private static Context eventLoopContext() {
+        Context context = Vertx.currentContext();
+        return context != null && context.isEventLoopContext() ? context : null;
+    }
+    
+    String getBeanName() { return beanName; }
+    int getMaxIdle() { return maxIdle; }
+    long getCreated() { return created.sum(); }
+    long getReused() { return reused.sum(); }
+}
@@ -0,0 +1,110 @@
+package omm.mtk.easy.api.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index des beans par type, construit une seule fois au démarrage : chaque classe parente (sauf
+ * {@code Object}) et chaque interface d'un bean pointe vers ses candidats, et le candidat retenu pour
+ * une injection par type (type exact, candidat unique, puis {@code @Primary}) est calculé d'avance.
+ * <p>
+ * Toutes les recherches, par type ou par qualifier, se font ensuite en une lecture de map.
+ *
+ * @author mahatoky rasolonirina
+ */
+final class BeanTypeIndex {
+    private final Map<String, BeanDefinition.Provider> byName = new HashMap<>();
+    private final List<BeanDefinition.Provider> all;
+    private final Map<Class<?>, List<BeanDefinition.Provider>> candidates = new HashMap<>();
+    private final Map<Class<?>, BeanDefinition.Provider> resolved = new HashMap<>();
+    private final Set<Class<?>> ambiguous = new HashSet<>();
+    
+    BeanTypeIndex(List<BeanDefinition.Provider> providers) {
+        this.all = providers;
+        for (BeanDefinition.Provider provider : providers) {
+            byName.putIfAbsent(provider.name, provider);
+            for (Class<?> type : assignableTypes(provider.type)) {
+                candidates.computeIfAbsent(type, key -> new ArrayList<>()).add(provider);
+            }
+        }
+        candidates.forEach((type, list) -> resolved.put(type, choose(type, list)));
+    }
+    
+    /**
+     * @return le fournisseur à injecter pour ce type, ou {@code null} si aucun bean ne convient.
+     * Un qualifier qui ne désigne aucun bean compatible est ignoré, comme auparavant.
+     */
+    BeanDefinition.Provider resolve(Class<?> type, String qualifier) {
+        if (qualifier != null && !qualifier.isEmpty()) {
+            BeanDefinition.Provider named = byName.get(qualifier);
+            if (named != null && type.isAssignableFrom(named.type)) {
+                return named;
+            }
+        }
+        return resolved.get(type);
+    }
+    
+    /**
+     * Pour une recherche à l'exécution ({@code getBean(Class)}) : contrairement à l'injection, un type
+     * ambigu ne désigne aucun bean plutôt que le premier par nom de classe.
+     *
+     * @return le fournisseur retenu pour ce type, ou {@code null} si aucun bean ou plusieurs sans {@code @Primary}
+     */
+    BeanDefinition.Provider resolveUnique(Class<?> type) {
+        return ambiguous.contains(type) ? null : resolved.get(type);
+    }
+    
+    List<BeanDefinition.Provider> candidates(Class<?> type) {
+        return type == Object.class ? all : candidates.getOrDefault(type, Collections.emptyList());
+    }
+    
+    /**
+     * @return {@code true} si plusieurs beans conviennent sans qu'aucun ne soit exact ni {@code @Primary}
+     */
+    boolean isAmbiguous(Class<?> type) {
+        return ambiguous.contains(type);
+    }
+    
+    private BeanDefinition.Provider choose(Class<?> type, List<BeanDefinition.Provider> list) {
+        BeanDefinition.Provider primary = null;
+        for (BeanDefinition.Provider provider : list) {
+            if (provider.type == type) {
+                return provider;
+            }
+            if (provider.primary && primary == null) {
+                primary = provider;
+            }
+        }
+        if (list.size() == 1) {
+            return list.get(0);
+        }
+        if (primary != null) {
+            return primary;
+        }
+        ambiguous.add(type);
+        return list.get(0);
+    }
+    
+    private static Set<Class<?>> assignableTypes(Class<?> type) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            types.add(current);
+            addInterfaces(current, types);
+        }
+        return types;
+    }
+    
+    private static void addInterfaces(Class<?> type, Set<Class<?>> types) {
+        for (Class<?> iface : type.getInterfaces()) {
+            if (types.add(iface)) {
+                addInterfaces(iface, types);
+            }
+        }
+    }
+}
@@ -1,18 +1,49 @@
 package omm.mtk.easy.api.core;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.net.URISyntaxException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 
 /**
+ * Recherche les classes d'un package dans les répertoires et les JARs du classpath.
+ * <p>
+ * Si la racine (JAR ou répertoire de classes) contient des index {@code components-*.idx} sous
+ * {@value #COMPONENT_INDEX_DIR}, écrits par {@code EasyApiProcessor} (un par module, tous gardés
+ * dans un fat jar), seule leur union est lue. Sinon seuls les fichiers dont le
+ * constant pool référence une annotation stéréotype sont chargés (voir {@link StereotypeFilter}) ;
+ * les répertoires sont parcourus sur le pool fork-join et les entrées d'un JAR une seule fois,
+ * puis gardées en mémoire pour les autres packages scannés.
+ *
  * @author mahatoky rasolonirina
  */
 
 public class ClassScanner {
+    private static final EasyLogger log = EasyLogger.getLogger(ClassScanner.class);
+    public static final String COMPONENT_INDEX_DIR = "META-INF/easy-api/";
+    
+    // racine (JAR ou répertoire) -> classes candidates qu'elle contient, ou celles de son index
+    private static final Map<String, List<String>> ROOT_CLASS_NAMES = new ConcurrentHashMap<>();
     
     public static Set<Class<?>> findClasses(String packageName) throws IOException {
         Set<Class<?>> classes = new HashSet<>();
@@ -21,132 +52,250 @@ public class ClassScanner {
         Enumeration<URL> resources = classLoader.getResources(path);
         
         if (!resources.hasMoreElements()) {
-            System.out.println("⚠️  No resources found for package: " + packageName);
+            log.warn("No resources found for package: {}", packageName);
             return classes;
         }
         
         while (resources.hasMoreElements()) {
             URL resource = resources.nextElement();
-            System.out.println("🔍 Scanning resource: " + resource);
+            log.debug("Scanning resource: {}", resource);
             
             if (resource.getProtocol().equals("file")) {
                 try {
                     File file = new File(resource.toURI());
-                    classes.addAll(findClassesInDirectory(file, packageName));
+                    findClassesInDirectory(file, packageName, classes);
                 } catch (URISyntaxException e) {
-                    System.err.println("❌ Invalid URI: " + resource);
+                    log.error("Invalid URI: {}", resource);
                 }
             } else if (resource.getProtocol().equals("jar")) {
-                // Pour les JARs, on utilise une approche alternative
-                findClassesInJar(packageName, classes);
+                findClassesInJar(resource, packageName, classes);
             }
         }
         
-        // Fallback: essayer de charger directement depuis le classpath
-        if (classes.isEmpty()) {
-            findClassesInClasspath(packageName, classes);
-        }
-        
-        System.out.println("📦 Found " + classes.size() + " classes in package: " + packageName);
-        classes.forEach(clazz -> System.out.println("   ✅ " + clazz.getName()));
+        log.debug("Found {} classes in package: {}", classes.size(), packageName);
         
         return classes;
     }
     
-    private static Set<Class<?>> findClassesInDirectory(File directory, String packageName) {
-        Set<Class<?>> classes = new HashSet<>();
-        if (!directory.exists() || !directory.isDirectory()) {
-            return classes;
+    private static void findClassesInDirectory(File directory, String packageName, Set<Class<?>> classes) {
+        File root = rootOf(directory, packageName);
+        File[] indexes = root == null ? null :
+                new File(root, COMPONENT_INDEX_DIR).listFiles((dir, name) -> isComponentIndex(COMPONENT_INDEX_DIR + name));
+        if (indexes != null && indexes.length > 0) {
+            List<String> classNames = ROOT_CLASS_NAMES.computeIfAbsent(root.getAbsolutePath(), key -> {
+                List<String> names = new ArrayList<>();
+                for (File index : indexes) {
+                    names.addAll(readIndex(index));
+                }
+                return names;
+            });
+            loadClasses(classNames, packageName, classes);
+            return;
+        }
+        if (!directory.isDirectory()) {
+            return;
+        }
+        for (String className : ForkJoinPool.commonPool().invoke(new DirectoryScan(directory, packageName))) {
+            loadClass(className, classes);
         }
+    }
+    
+    /**
+     * Parcourt un répertoire en parallèle : un sous-répertoire par tâche, et chaque fichier
+     * {@code .class} est filtré par {@link StereotypeFilter} sans être chargé.
+     */
+    private static class DirectoryScan extends RecursiveTask<List<String>> {
+        private final File directory;
+        private final String packageName;
         
-        File[] files = directory.listFiles();
-        if (files == null) return classes;
+        DirectoryScan(File directory, String packageName) {
+            this.directory = directory;
+            this.packageName = packageName;
+        }
         
-        for (File file : files) {
-            if (file.isDirectory()) {
-                String subPackage = packageName + "." + file.getName();
-                classes.addAll(findClassesInDirectory(file, subPackage));
-            } else if (file.getName().endsWith(".class")) {
-                String className = packageName + '.' + file.getName().substring(0, file.getName().length() - 6);
-                loadClass(className, classes);
+        @Override
+        protected List<String> compute() {
+            List<String> classNames = new ArrayList<>();
+            File[] files = directory.listFiles();
+            if (files == null) return classNames;
+            
+            List<DirectoryScan> subtasks = new ArrayList<>();
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    DirectoryScan subtask = new DirectoryScan(file, packageName + "." + file.getName());
+                    subtask.fork();
+                    subtasks.add(subtask);
+                } else if (isCandidate(file.getName())) {
+                    try {
+                        if (StereotypeFilter.mayBeComponent(Files.readAllBytes(file.toPath()))) {
+                            classNames.add(packageName + '.' + file.getName().substring(0, file.getName().length() - 6));
+                        }
+                    } catch (IOException e) {
+                        log.error("Error reading class file: {} - {}", file, e.getMessage());
+                    }
+                }
+            }
+            for (DirectoryScan subtask : subtasks) {
+                classNames.addAll(subtask.join());
             }
+            return classNames;
         }
-        return classes;
     }
     
-    private static void findClassesInJar(String packageName, Set<Class<?>> classes) {
+    /**
+     * Même règle que {@code EasyApiProcessor} pour l'index : classes de premier niveau et classes membres.
+     * Les classes anonymes et locales ({@code Outer$1}, {@code Outer$1Local}) sont écartées sur leur nom,
+     * les classes internes non statiques après chargement (voir {@link #isInstantiable}).
+     */
+    private static boolean isCandidate(String fileName) {
+        if (!fileName.endsWith(".class") || fileName.equals("module-info.class") || fileName.equals("package-info.class")) {
+            return false;
+        }
+        String name = fileName.substring(0, fileName.length() - 6);
+        for (int i = name.indexOf('$'); i >= 0; i = name.indexOf('$', i + 1)) {
+            if (i + 1 == name.length() || Character.isDigit(name.charAt(i + 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    static boolean isInstantiable(Class<?> clazz) {
+        for (Class<?> current = clazz; current.getEnclosingClass() != null; current = current.getEnclosingClass()) {
+            if (!current.isMemberClass() || !Modifier.isStatic(current.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * {@code components.idx} (ancien nom unique) ou {@code components-<package>.idx}, directement sous {@value #COMPONENT_INDEX_DIR}.
+     */
+    static boolean isComponentIndex(String entryName) {
+        return entryName.startsWith(COMPONENT_INDEX_DIR + "components") && entryName.endsWith(".idx") &&
+                entryName.indexOf('/', COMPONENT_INDEX_DIR.length()) < 0;
+    }
+    
+    /**
+     * Remonte d'autant de répertoires que le package a de segments pour retrouver la racine du classpath.
+     */
+    private static File rootOf(File directory, String packageName) {
+        File root = directory;
+        int segments = packageName.split("\\.").length;
+        for (int i = 0; i < segments && root != null; i++) {
+            root = root.getParentFile();
+        }
+        return root;
+    }
+    
+    private static void findClassesInJar(URL resource, String packageName, Set<Class<?>> classes) {
         try {
-            String path = packageName.replace('.', '/');
-            Enumeration<URL> resources = Thread.currentThread().getContextClassLoader().getResources(path);
+            JarURLConnection connection = (JarURLConnection) resource.openConnection();
+            File jarFile = new File(connection.getJarFileURL().toURI());
+            scanJarFile(jarFile, packageName, classes);
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            log.error("Error scanning JAR: {} - {}", resource, e.getMessage());
+        }
+    }
+    
+    private static void scanJarFile(File jarFile, String packageName, Set<Class<?>> classes) {
+        log.debug("Scanning JAR: {} for package: {}", jarFile.getName(), packageName);
+        List<String> classNames = ROOT_CLASS_NAMES.computeIfAbsent(jarFile.getAbsolutePath(), key -> readJarClassNames(jarFile));
+        loadClasses(classNames, packageName, classes);
+    }
+    
+    private static List<String> readJarClassNames(File file) {
+        List<String> classNames = new ArrayList<>();
+        try (JarFile jar = new JarFile(file)) {
+            List<JarEntry> indexes = new ArrayList<>();
+            for (Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements(); ) {
+                JarEntry entry = entries.nextElement();
+                if (isComponentIndex(entry.getName())) {
+                    indexes.add(entry);
+                }
+            }
+            if (!indexes.isEmpty()) {
+                for (JarEntry index : indexes) {
+                    try (InputStream in = jar.getInputStream(index)) {
+                        classNames.addAll(readIndex(in));
+                    }
+                }
+                return classNames;
+            }
             
-            while (resources.hasMoreElements()) {
-                URL resource = resources.nextElement();
-                String jarPath = resource.getPath();
-                
-                // Extraire le chemin du JAR et scanner
-                if (jarPath.contains("!")) {
-                    String jarFilePath = jarPath.substring(5, jarPath.indexOf("!")); // Supprimer "file:"
-                    scanJarFile(new File(jarFilePath), packageName, classes);
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (name.startsWith("META-INF/") || !isCandidate(name.substring(name.lastIndexOf('/') + 1))) {
+                    continue;
+                }
+                try (InputStream in = jar.getInputStream(entry)) {
+                    if (StereotypeFilter.mayBeComponent(readFully(in, entry.getSize()))) {
+                        classNames.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                    }
                 }
             }
         } catch (IOException e) {
-            System.err.println("❌ Error scanning JAR: " + e.getMessage());
+            log.error("Error reading JAR: {} - {}", file, e.getMessage());
         }
+        return classNames;
     }
     
-    private static void scanJarFile(File jarFile, String packageName, Set<Class<?>> classes) {
-        // Implémentation basique pour les JARs - on va utiliser une approche alternative
-        System.out.println("📦 Scanning JAR: " + jarFile.getName() + " for package: " + packageName);
+    private static byte[] readFully(InputStream in, long size) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size > 0 ? (int) size : 4096);
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
     }
     
-    private static void findClassesInClasspath(String packageName, Set<Class<?>> classes) {
-        System.out.println("🔄 Using classpath fallback for: " + packageName);
-        
-        // Essayer de charger les classes directement par réflexion
-        // Cette méthode est moins fiable mais peut aider en développement
-        try {
-            // Créer un ensemble de noms de classes probables basé sur la structure de packages
-            Set<String> potentialClassNames = generatePotentialClassNames(packageName);
-            
-            for (String className : potentialClassNames) {
-                loadClass(className, classes);
+    private static List<String> readIndex(File index) {
+        try (InputStream in = new FileInputStream(index)) {
+            return readIndex(in);
+        } catch (IOException e) {
+            log.error("Error reading component index: {} - {}", index, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    static List<String> readIndex(InputStream in) throws IOException {
+        List<String> classNames = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                classNames.add(line);
             }
-        } catch (Exception e) {
-            System.err.println("❌ Error in classpath fallback: " + e.getMessage());
         }
+        return classNames;
     }
     
-    private static Set<String> generatePotentialClassNames(String packageName) {
-        Set<String> names = new HashSet<>();
-        
-        // Ajouter des noms de classes communs qu'on pourrait trouver
-        String[] commonClassNames = {
-                "Main", "Application", "Config", "Configuration",
-                "Controller", "Service", "Repository", "Component",
-                "UserService", "UserController", "HomeController"
-        };
-        
-        for (String className : commonClassNames) {
-            names.add(packageName + "." + className);
+    private static void loadClasses(List<String> classNames, String packageName, Set<Class<?>> classes) {
+        String prefix = packageName + ".";
+        for (String className : classNames) {
+            if (className.startsWith(prefix)) {
+                loadClass(className, classes);
+            }
         }
-        
-        return names;
     }
     
     private static void loadClass(String className, Set<Class<?>> classes) {
         try {
-            if (className.contains("$")) {
-                return;
-            }
-            
             Class<?> clazz = Class.forName(className, false, Thread.currentThread().getContextClassLoader());
-            classes.add(clazz);
+            if (isInstantiable(clazz)) {
+                classes.add(clazz);
+            }
         } catch (ClassNotFoundException e) {
-            // C'est normal, ignorer silencieusement
+            log.error("Class not found: {}", className);
         } catch (NoClassDefFoundError e) {
-            System.err.println("❌ Class definition not found for: " + className);
+            log.error("Class definition not found for: {}", className);
         } catch (Exception e) {
-            System.err.println("❌ Error loading class: " + className + " - " + e.getMessage());
+            log.error("Error loading class: {} - {}", className, e.getMessage());
         }
     }
 }
@@ -0,0 +1,56 @@
+package omm.mtk.easy.api.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Registre des composants généré à la compilation par {@code EasyApiProcessor}
+ * et découvert via {@link java.util.ServiceLoader}.
+ * <p>
+ * Quand un registre couvre le package scanné, le contexte l'utilise à la place de
+ * {@link ClassScanner} : aucun parcours du classpath et aucun chargement de classe
+ * qui n'est pas un composant.
+ *
+ * @author mahatoky rasolonirina
+ */
+public interface ComponentRegistry {
+    
+    /**
+     * Package commun à tous les composants du registre.
+     */
+    String basePackage();
+    
+    Set<Class<?>> componentClasses();
+    
+    /**
+     * Fabriques sans réflexion pour les composants publics n'ayant qu'un constructeur public sans argument.
+     */
+    Map<Class<?>, Supplier<Object>> factories();
+    
+    /**
+     * Charge, sans les initialiser, les classes listées par l'index {@code index} du module de {@code registryClass}.
+     * Appelé par les registres générés.
+     */
+    static Set<Class<?>> loadIndex(Class<?> registryClass, String index) {
+        ClassLoader classLoader = registryClass.getClassLoader();
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        try (InputStream in = classLoader.getResourceAsStream(index)) {
+            if (in == null) {
+                throw new IllegalStateException("Component index not found: " + index);
+            }
+            for (String name : ClassScanner.readIndex(in)) {
+                classes.add(Class.forName(name, false, classLoader));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read component index " + index, e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Component not found: " + e.getMessage(), e);
+        }
+        return classes;
+    }
+}
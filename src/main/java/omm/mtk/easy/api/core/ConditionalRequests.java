@@ -0,0 +1,100 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Requêtes conditionnelles GET (RFC 7232) : calcul des validateurs et test de
+ * {@code If-None-Match} / {@code If-Modified-Since}.
+ * <p>
+ * {@code If-None-Match} est prioritaire et comparé de façon faible ({@code W/} ignoré) ;
+ * {@code If-Modified-Since} n'est pris en compte qu'en son absence, à la seconde près.
+ *
+ * @author mahatoky rasolonirina
+ */
+final class ConditionalRequests {
+    // Un MessageDigest n'est pas thread-safe ; un par event loop ou worker
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+    private static final int ETAG_BYTES = 16;
+    
+    private ConditionalRequests() {
+    }
+    
+    static boolean isConditional(HttpServerRequest request) {
+        return request.method() == HttpMethod.GET &&
+                (request.getHeader("If-None-Match") != null || request.getHeader("If-Modified-Since") != null);
+    }
+    
+    /**
+     * @param eTag         ETag de la ressource, ou {@code null}
+     * @param lastModified date de modification en millisecondes, ou {@code -1}
+     * @return {@code true} si le client a déjà la version courante et doit recevoir un 304
+     */
+    static boolean isNotModified(HttpServerRequest request, String eTag, long lastModified) {
+        if (request.method() != HttpMethod.GET) {
+            return false;
+        }
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return eTag != null && eTagMatches(ifNoneMatch, eTag);
+        }
+        String ifModifiedSince = request.getHeader("If-Modified-Since");
+        if (ifModifiedSince == null || lastModified < 0) {
+            return false;
+        }
+        try {
+            long since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+            return lastModified / 1000 <= since;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+    
+    private static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        String opaque = opaqueTag(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || opaqueTag(value).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String opaqueTag(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+    
+    /**
+     * ETag fort calculé sur les octets encodés : SHA-256 tronqué à 128 bits, en base64url.
+     * Une empreinte cryptographique, car un ETag fort identique vaut un 304 : deux corps
+     * différents ne doivent pas pouvoir partager le même.
+     */
+    static String strongETag(Buffer body) {
+        MessageDigest digest = SHA_256.get();
+        byte[] hash = digest.digest(body.getBytes());
+        byte[] truncated = new byte[ETAG_BYTES];
+        System.arraycopy(hash, 0, truncated, 0, ETAG_BYTES);
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(truncated) + "\"";
+    }
+    
+    static String httpDate(long epochMillis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC));
+    }
+}
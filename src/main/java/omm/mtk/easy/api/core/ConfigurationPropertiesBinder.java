@@ -11,6 +11,7 @@ import java.util.*;
  * @author mahatoky rasolonirina
  */
 public class ConfigurationPropertiesBinder {
+    private static final EasyLogger log = EasyLogger.getLogger(ConfigurationPropertiesBinder.class);
     
     private final JsonObject properties;
     
@@ -54,7 +55,7 @@ public class ConfigurationPropertiesBinder {
                     }
                 }
             } catch (Exception e) {
-                System.err.println("Failed to bind field " + field.getName() + ": " + e.getMessage());
+                log.error("Failed to bind field {}: {}", field.getName(), e.getMessage());
             }
         }
     }
@@ -82,7 +83,7 @@ public class ConfigurationPropertiesBinder {
                         }
                     }
                 } catch (Exception e) {
-                    System.err.println("Failed to bind setter " + method.getName() + ": " + e.getMessage());
+                    log.error("Failed to bind setter {}: {}", method.getName(), e.getMessage());
                 }
             }
         }
@@ -117,7 +118,9 @@ public class ConfigurationPropertiesBinder {
             }
         }
         
-        return null;
+        // Même repli que @Value : propriété système
+        String systemValue = System.getProperty(propertyName);
+        return systemValue != null ? convertValue(systemValue, targetType) : null;
     }
     
     private Object getNestedPropertyValue(String propertyName) {
@@ -125,6 +128,12 @@ public class ConfigurationPropertiesBinder {
             return null;
         }
         
+        // application.properties est chargé à plat : la clé complète ("server.compression.enabled") d'abord
+        Object flatValue = properties.getValue(propertyName);
+        if (flatValue != null) {
+            return flatValue;
+        }
+        
         String[] parts = propertyName.split("\\.");
         JsonObject current = properties;
         
@@ -173,7 +182,7 @@ public class ConfigurationPropertiesBinder {
                 return Arrays.asList(value.split("\\s*,\\s*"));
             }
         } catch (Exception e) {
-            System.err.println("Failed to convert value '" + value + "' to type " + targetType.getName() + ": " + e.getMessage());
+            log.error("Failed to convert value '{}' to type {}: {}", value, targetType.getName(), e.getMessage());
         }
         
         return getDefaultValue(targetType);
@@ -207,7 +216,7 @@ public class ConfigurationPropertiesBinder {
         try {
             return type.getDeclaredConstructor().newInstance();
         } catch (Exception e) {
-            System.err.println("Failed to create instance of " + type.getName() + ": " + e.getMessage());
+            log.error("Failed to create instance of {}: {}", type.getName(), e.getMessage());
             return null;
         }
     }
@@ -1,7 +1,10 @@
 package omm.mtk.easy.api.core;
 
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.SocketAddress;
 import omm.mtk.easy.api.annotation.*;
 
 import java.io.IOException;
@@ -9,180 +12,397 @@ import java.io.InputStream;
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author mahatoky rasolonirina
  */
 public class EasyApplicationContext {
+    private static final EasyLogger log = EasyLogger.getLogger(EasyApplicationContext.class);
+    // Beans fournis par le framework, ajoutés aux classes scannées de l'application
+    private static final List<Class<?>> FRAMEWORK_BEANS = Arrays.asList(ResponseCacheManager.class, ServerProperties.class);
+    
     private final Map<String, Object> beans = new ConcurrentHashMap<>();
     private final Map<Class<?>, Object> beansByType = new ConcurrentHashMap<>();
-    private final Map<Class<?>, Object> beansByInterface = new ConcurrentHashMap<>();
     private final Vertx vertx;
     private final JsonObject properties;
     private final Set<Class<?>> scannedClasses;
+    private final Map<Class<?>, Supplier<Object>> factories = new HashMap<>();
+    private final Map<Class<?>, BeanDefinition> definitionsByType = new HashMap<>();
+    private final Map<String, BeanDefinition> definitionsByName = new HashMap<>();
+    // Construit une fois au plan des beans, en lecture seule ensuite
+    private BeanTypeIndex typeIndex;
+    private final Map<Class<?>, Map<String, Object>> beansOfType = new ConcurrentHashMap<>();
+    // Beans paresseux en cours de création, visibles uniquement du thread qui tient lazyLock
+    private final Map<String, Object> earlyBeans = new HashMap<>();
+    private final Object lazyLock = new Object();
     private final EasyWebRouter webRouter;
     private final ConfigurationPropertiesBinder propertiesBinder;
+    private final StartupReport startupReport = new StartupReport();
     
     public EasyApplicationContext(Vertx vertx, String... basePackages) {
+        this(vertx, null, basePackages);
+    }
+    
+    /**
+     * @param properties propriétés déjà chargées par {@link #loadApplicationProperties()},
+     *                   ou {@code null} pour les charger ici
+     */
+    public EasyApplicationContext(Vertx vertx, JsonObject properties, String... basePackages) {
         this.vertx = vertx;
-        this.properties = loadProperties();
-        this.scannedClasses = scanPackages(basePackages);
-        this.propertiesBinder = new ConfigurationPropertiesBinder(properties);
+        if (properties != null) {
+            startupReport.preloaded(StartupReport.PROPERTIES);
+            this.properties = properties;
+        } else {
+            this.properties = startupReport.time(StartupReport.PROPERTIES, EasyApplicationContext::loadApplicationProperties);
+        }
+        EasyLogger.setLevel(EasyLogger.parseLevel(getProperty(EasyLogger.LEVEL_PROPERTY, null), EasyLogger.getLevel()));
         
-        System.out.println("🔧 Initializing EasyApi context...");
-        System.out.println("📦 Scanned classes: " + scannedClasses.size());
-        scannedClasses.forEach(clazz -> System.out.println("   📍 " + clazz.getName()));
+        this.scannedClasses = startupReport.time(StartupReport.SCAN, () -> scanPackages(basePackages));
+        this.propertiesBinder = new ConfigurationPropertiesBinder(this.properties);
         
-        initializeBeans();
-        // DEBUG: Afficher les beans créés
-        System.out.println("📊 Beans initialized: " + beans.size());
-        beans.forEach((name, bean) -> System.out.println("   🟢 " + name + " -> " + bean.getClass().getName()));
+        log.debug("Scanned classes: {}", scannedClasses.size());
+        if (log.isDebugEnabled()) {
+            scannedClasses.forEach(clazz -> log.debug("   {}", clazz.getName()));
+        }
         
-        buildInterfaceMapping();
-        injectDependencies();
-        bindConfigurationProperties();
-        this.webRouter = new EasyWebRouter(vertx, this);
+        BeanGraph graph = startupReport.time(StartupReport.GRAPH, () -> new BeanGraph(planBeans()));
+        startupReport.time(StartupReport.BEANS, () -> initializeBeans(graph));
+        if (log.isDebugEnabled()) {
+            beans.forEach((name, bean) -> log.debug("   {} -> {}", name, bean.getClass().getName()));
+        }
         
-        System.out.println("✅ EasyApi context initialized with " + beans.size() + " beans");
+        this.webRouter = startupReport.time(StartupReport.ROUTES, () -> new EasyWebRouter(vertx, this));
+        
+        long lazyBeans = definitionsByType.values().stream().filter(d -> d.lazy && !beans.containsKey(d.name)).count();
+        startupReport.complete(scannedClasses.size(), beans.size(), (int) lazyBeans, webRouter.getRoutes().size());
+        log.info("{}", startupReport);
     }
     
-    private JsonObject loadProperties() {
+    /**
+     * Lit {@code application.properties} depuis le classpath, avant même la création de Vert.x
+     * quand ses options en dépendent.
+     */
+    public static JsonObject loadApplicationProperties() {
         JsonObject props = new JsonObject();
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream("application.properties")) {
+        try (InputStream is = EasyApplicationContext.class.getClassLoader().getResourceAsStream("application.properties")) {
             if (is != null) {
                 Properties javaProps = new Properties();
                 javaProps.load(is);
                 javaProps.forEach((k, v) -> props.put((String) k, v));
-                System.out.println("✅ Loaded application.properties");
+                log.debug("Loaded application.properties");
             } else {
-                System.out.println("ℹ️ No application.properties found, using defaults");
+                log.debug("No application.properties found, using defaults");
             }
         } catch (IOException e) {
-            System.out.println("ℹ️ No application.properties found, using defaults");
+            log.warn("Failed to read application.properties, using defaults: {}", e.getMessage());
         }
         return props;
     }
     
     private Set<Class<?>> scanPackages(String... basePackages) {
+        List<ComponentRegistry> registries = new ArrayList<>();
+        ServiceLoader.load(ComponentRegistry.class, getClass().getClassLoader()).forEach(registries::add);
+        
         Set<Class<?>> allClasses = new HashSet<>();
         for (String basePackage : basePackages) {
+            if (loadFromRegistries(registries, basePackage, allClasses)) {
+                continue;
+            }
             try {
                 Set<Class<?>> packageClasses = ClassScanner.findClasses(basePackage);
                 allClasses.addAll(packageClasses);
             } catch (IOException e) {
-                System.err.println("❌ Failed to scan package: " + basePackage + " - " + e.getMessage());
+                log.error("Failed to scan package: {} - {}", basePackage, e.getMessage());
                 // Continuer avec les autres packages
             }
         }
         return allClasses;
     }
     
-    private void initializeBeans() {
-        System.out.println("🔧 Initializing beans...");
-        
-        // D'abord les configurations
-        scannedClasses.stream()
-                .filter(clazz -> clazz.isAnnotationPresent(Configuration.class))
-                .forEach(this::createConfigurationBean);
-        
-        // Ensuite les autres composants
-        List<Class<?>> componentClasses = scannedClasses.stream()
-                .filter(clazz -> isComponent(clazz) &&
-                        !clazz.isAnnotationPresent(Configuration.class) &&
-                        !clazz.isAnnotation())
+    /**
+     * Utilise le registre généré par l'annotation processor quand il couvre le package demandé,
+     * ce qui évite de parcourir le classpath au démarrage. Le registre d'un autre module dont le
+     * package est inclus dans le package demandé (fat jar multi-modules) est lu aussi.
+     */
+    private boolean loadFromRegistries(List<ComponentRegistry> registries, String basePackage, Set<Class<?>> allClasses) {
+        boolean covered = false;
+        for (ComponentRegistry registry : registries) {
+            String registryPackage = registry.basePackage();
+            boolean covering = isWithinPackage(basePackage, registryPackage);
+            if (!covering && !isWithinPackage(registryPackage, basePackage)) {
+                continue;
+            }
+            covered |= covering;
+            for (Class<?> clazz : registry.componentClasses()) {
+                if (isWithinPackage(clazz.getName(), basePackage)) {
+                    allClasses.add(clazz);
+                }
+            }
+            registry.factories().forEach((clazz, factory) -> {
+                if (isWithinPackage(clazz.getName(), basePackage)) {
+                    factories.put(clazz, factory);
+                }
+            });
+        }
+        if (covered) {
+            log.debug("Components of {} loaded from generated registry", basePackage);
+        }
+        return covered;
+    }
+    
+    private static boolean isWithinPackage(String name, String basePackage) {
+        return basePackage.isEmpty() || name.equals(basePackage) || name.startsWith(basePackage + ".");
+    }
+    
+    /**
+     * Établit le plan de chaque bean avant toute instanciation : fournisseurs disponibles,
+     * indexés par type, constructeur retenu, puis le fournisseur de chaque point d'injection.
+     */
+    private List<BeanDefinition> planBeans() {
+        boolean lazyInit = Boolean.parseBoolean(getProperty("easy.beans.lazy-init", "false"));
+        int defaultPoolSize = Integer.parseInt(getProperty("easy.beans.pool-size", "16"));
+        List<BeanDefinition> definitions = Stream.concat(scannedClasses.stream(), FRAMEWORK_BEANS.stream())
+                .distinct()
+                .filter(clazz -> !clazz.isAnnotation() &&
+                        (clazz.isAnnotationPresent(Configuration.class) || isComponent(clazz)))
+                .sorted(Comparator.comparing(Class::getName))
+                .map(clazz -> {
+                    String scope = scopeOf(clazz);
+                    return new BeanDefinition(clazz, getBeanName(clazz), clazz.isAnnotationPresent(Configuration.class),
+                            Scope.SINGLETON.equals(scope) && isLazy(clazz, lazyInit), scope);
+                })
                 .collect(Collectors.toList());
+        for (BeanDefinition definition : definitions) {
+            definitionsByType.put(definition.beanClass, definition);
+            definitionsByName.put(definition.name, definition);
+            if (Scope.POOLED.equals(definition.scope)) {
+                int poolSize = definition.beanClass.getAnnotation(Scope.class).poolSize();
+                definition.pool = new BeanPool(definition.name, poolSize > 0 ? poolSize : defaultPoolSize,
+                        () -> createScoped(definition));
+            }
+        }
         
-        System.out.println("📋 Components to initialize: " + componentClasses.size());
-        componentClasses.forEach(clazz -> System.out.println("   🏗️ " + clazz.getName() +
-                (clazz.getInterfaces().length > 0 ? " (implements: " +
-                        Arrays.stream(clazz.getInterfaces()).map(Class::getSimpleName).collect(Collectors.joining(", ")) + ")" : "")));
+        List<BeanDefinition.Provider> providers = new ArrayList<>();
+        for (BeanDefinition definition : definitions) {
+            providers.add(new BeanDefinition.Provider(definition.name, definition.beanClass, definition, isPrimary(definition.beanClass)));
+            if (definition.configuration) {
+                for (Method method : definition.beanClass.getDeclaredMethods()) {
+                    if (method.isAnnotationPresent(Component.class)) {
+                        providers.add(new BeanDefinition.Provider(getMethodBeanName(method), method.getReturnType(), definition, false));
+                    }
+                }
+            }
+        }
         
-        componentClasses.forEach(this::createBean);
+        typeIndex = new BeanTypeIndex(providers);
+        
+        for (BeanDefinition definition : definitions) {
+            planConstructor(definition);
+            planInjectionPoints(definition);
+        }
+        log.debug("Components to initialize: {}", definitions.size());
+        return definitions;
     }
     
-    private void buildInterfaceMapping() {
-        System.out.println("🔗 Building interface mapping...");
-        
-        Map<Class<?>, List<Object>> interfaceImplementations = new HashMap<>();
+    /**
+     * Les configurations, contrôleurs et {@code @ControllerAdvice} sont toujours des singletons.
+     */
+    private String scopeOf(Class<?> clazz) {
+        Scope annotation = clazz.getAnnotation(Scope.class);
+        String scope = annotation == null ? Scope.SINGLETON : annotation.value();
+        if (!Scope.SINGLETON.equals(scope) && !Scope.PROTOTYPE.equals(scope) && !Scope.POOLED.equals(scope)) {
+            throw new IllegalStateException("Unknown scope '" + scope + "' on bean: " + clazz.getName());
+        }
+        if (!Scope.SINGLETON.equals(scope) && (clazz.isAnnotationPresent(Configuration.class) ||
+                clazz.isAnnotationPresent(RestController.class) || clazz.isAnnotationPresent(ControllerAdvice.class))) {
+            throw new IllegalStateException("@Configuration, @RestController and @ControllerAdvice beans must be " +
+                    "singletons: " + clazz.getName());
+        }
+        return scope;
+    }
+    
+    /**
+     * Les configurations et les {@code @ControllerAdvice} restent toujours eager.
+     */
+    private boolean isLazy(Class<?> clazz, boolean lazyInit) {
+        if (clazz.isAnnotationPresent(Configuration.class) || clazz.isAnnotationPresent(ControllerAdvice.class)) {
+            return false;
+        }
+        Lazy lazy = clazz.getAnnotation(Lazy.class);
+        return lazy != null ? lazy.value() : lazyInit;
+    }
+    
+    private void planConstructor(BeanDefinition definition) {
+        if (factories.containsKey(definition.beanClass)) {
+            return;
+        }
         
-        // Parcourir tous les beans enregistrés
-        for (Map.Entry<String, Object> beanEntry : beans.entrySet()) {
-            Object beanInstance = beanEntry.getValue();
-            Class<?> beanClass = beanInstance.getClass();
-            
-            System.out.println("  🔍 Analyzing bean: " + beanClass.getName());
-            
-            // Obtenir toutes les interfaces implémentées (méthode améliorée)
-            Set<Class<?>> interfaces = getAllInterfaces(beanClass);
-            
-            if (!interfaces.isEmpty()) {
-                System.out.println("    📍 Implements interfaces: " + interfaces.stream()
-                        .map(Class::getSimpleName)
-                        .collect(Collectors.joining(", ")));
-            }
-            
-            for (Class<?> interfaceClass : interfaces) {
-                interfaceImplementations
-                        .computeIfAbsent(interfaceClass, k -> new ArrayList<>())
-                        .add(beanInstance);
+        definition.constructor = selectConstructor(definition.beanClass);
+        definition.constructorArguments = planArguments(definition.constructor.getParameters(), definition, true);
+    }
+    
+    private void planInjectionPoints(BeanDefinition definition) {
+        for (Field field : definition.beanClass.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Autowired.class)) {
+                BeanDefinition.InjectionPoint injection =
+                        planInjection(field, field.getType(), field.getGenericType(), definition);
+                definition.fieldInjections.put(field, injection);
+                definition.addDependency(injection, false);
             }
         }
         
-        // Résoudre le mapping
-        for (Map.Entry<Class<?>, List<Object>> entry : interfaceImplementations.entrySet()) {
-            Class<?> interfaceClass = entry.getKey();
-            List<Object> implementations = entry.getValue();
-            
-            System.out.println("  🔧 Resolving " + interfaceClass.getSimpleName() + " -> " + implementations.size() + " implementations");
-            
-            if (implementations.size() == 1) {
-                beansByInterface.put(interfaceClass, implementations.get(0));
-                System.out.println("    ✅ Single implementation: " + interfaceClass.getSimpleName() + " -> " + implementations.get(0).getClass().getSimpleName());
-            } else {
-                Object primaryImpl = findPrimaryImplementation(implementations);
-                if (primaryImpl != null) {
-                    beansByInterface.put(interfaceClass, primaryImpl);
-                    System.out.println("    🏆 Using @Primary: " + interfaceClass.getSimpleName() + " -> " + primaryImpl.getClass().getSimpleName());
-                } else {
-                    // Pour le moment, on prend le premier et on log un warning
-                    beansByInterface.put(interfaceClass, implementations.get(0));
-                    System.out.println("    ⚠️ Multiple implementations for " + interfaceClass.getSimpleName() + ", using first: " + implementations.get(0).getClass().getSimpleName());
-                }
+        for (Method method : definition.beanClass.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Autowired.class)) {
+                definition.methodInjections.put(method, planArguments(method.getParameters(), definition, false));
             }
         }
-        
-        System.out.println("✅ Interface mapping completed: " + beansByInterface.size() + " interfaces mapped");
-        if (!beansByInterface.isEmpty()) {
-            beansByInterface.forEach((iface, impl) ->
-                    System.out.println("   🔗 " + iface.getSimpleName() + " -> " + impl.getClass().getSimpleName()));
+    }
+    
+    private BeanDefinition.InjectionPoint[] planArguments(Parameter[] parameters, BeanDefinition definition,
+                                                          boolean constructorInjection) {
+        BeanDefinition.InjectionPoint[] injections = new BeanDefinition.InjectionPoint[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            if (!parameters[i].isAnnotationPresent(Value.class)) {
+                injections[i] = planInjection(parameters[i], parameters[i].getType(),
+                        parameters[i].getParameterizedType(), definition);
+                definition.addDependency(injections[i], constructorInjection);
+            }
         }
+        return injections;
     }
     
-    private Set<Class<?>> getAllInterfaces(Class<?> clazz) {
-        Set<Class<?>> interfaces = new HashSet<>();
-        Class<?> current = clazz;
+    /**
+     * Un {@code Supplier<T>} est toujours paresseux. Une interface reçoit un proxy si le point
+     * d'injection porte {@code @Lazy} ou si le bean injecté est lui-même paresseux ; une classe
+     * concrète reçoit le bean, créé au besoin à ce moment-là.
+     * Un bean {@code pooled} ne s'injecte pas : il est prêté par requête, jamais gardé par un autre bean.
+     */
+    private BeanDefinition.InjectionPoint planInjection(AnnotatedElement element, Class<?> type, Type genericType,
+                                                        BeanDefinition requiredBy) {
+        String qualifier = qualifierOf(element);
+        if (type == Supplier.class) {
+            Class<?> targetType = supplierTarget(genericType, requiredBy);
+            BeanDefinition.Provider provider = resolveProvider(targetType, qualifier, requiredBy);
+            checkInjectable(provider, requiredBy);
+            return new BeanDefinition.InjectionPoint(provider, targetType, BeanDefinition.InjectionPoint.Kind.SUPPLIER);
+        }
         
-        while (current != null && current != Object.class) {
-            // Ajouter les interfaces directes
-            interfaces.addAll(Arrays.asList(current.getInterfaces()));
-            
-            // Pour chaque interface, ajouter aussi ses interfaces parentes
-            for (Class<?> iface : current.getInterfaces()) {
-                interfaces.addAll(getAllInterfaces(iface));
+        BeanDefinition.Provider provider = resolveProvider(type, qualifier, requiredBy);
+        checkInjectable(provider, requiredBy);
+        Lazy lazy = element.getAnnotation(Lazy.class);
+        boolean lazyInjection = lazy != null ? lazy.value() : provider.owner.lazy;
+        if (lazyInjection && type.isInterface()) {
+            return new BeanDefinition.InjectionPoint(provider, type, BeanDefinition.InjectionPoint.Kind.PROXY);
+        }
+        if (lazy != null && lazy.value()) {
+            throw new IllegalStateException("@Lazy injection point must be an interface or a Supplier<T>: " +
+                    type.getName() + " in " + requiredBy);
+        }
+        return new BeanDefinition.InjectionPoint(provider, type, BeanDefinition.InjectionPoint.Kind.DIRECT);
+    }
+    
+    private void checkInjectable(BeanDefinition.Provider provider, BeanDefinition requiredBy) {
+        if (provider.owner.pool != null) {
+            throw new IllegalStateException("Pooled bean '" + provider.name + "' cannot be injected into " + requiredBy +
+                    ": declare it as a controller method parameter or use leaseBean()");
+        }
+    }
+    
+    private Class<?> supplierTarget(Type genericType, BeanDefinition requiredBy) {
+        if (genericType instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                return (Class<?>) argument;
+            }
+            if (argument instanceof ParameterizedType) {
+                return (Class<?>) ((ParameterizedType) argument).getRawType();
             }
-            
-            current = current.getSuperclass();
+        }
+        throw new IllegalStateException("Supplier injection needs a concrete type argument in " + requiredBy);
+    }
+    
+    /**
+     * Constructeur {@code @Autowired}, sinon l'unique constructeur public, sinon le constructeur public
+     * le plus complet, sinon le constructeur sans argument.
+     */
+    private Constructor<?> selectConstructor(Class<?> clazz) {
+        Constructor<?>[] constructors = clazz.getConstructors();
+        Constructor<?> selected = null;
+        for (Constructor<?> constructor : constructors) {
+            if (constructor.isAnnotationPresent(Autowired.class)) {
+                return constructor;
+            }
+            if (selected == null || constructor.getParameterCount() > selected.getParameterCount()) {
+                selected = constructor;
+            }
+        }
+        if (selected != null) {
+            return selected;
         }
         
-        return interfaces;
+        try {
+            Constructor<?> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("No usable constructor for bean: " + clazz.getName());
+        }
     }
     
-    private Object findPrimaryImplementation(List<Object> implementations) {
-        return implementations.stream()
-                .filter(impl -> isPrimary(impl.getClass()))
-                .findFirst()
-                .orElse(null);
+    private String qualifierOf(AnnotatedElement element) {
+        Qualifier qualifier = element.getAnnotation(Qualifier.class);
+        return qualifier != null ? qualifier.value() : null;
+    }
+    
+    /**
+     * Qualifier, type exact, candidat unique, puis {@code @Primary} : l'ordre de résolution
+     * est précalculé par {@link BeanTypeIndex}.
+     */
+    private BeanDefinition.Provider resolveProvider(Class<?> type, String qualifier, BeanDefinition requiredBy) {
+        BeanDefinition.Provider provider = typeIndex.resolve(type, qualifier);
+        if (provider == null) {
+            throw new IllegalStateException("No bean found for " + type.getName() + " required by " + requiredBy);
+        }
+        if (typeIndex.isAmbiguous(type) && (qualifier == null || !provider.name.equals(qualifier))) {
+            log.warn("Multiple beans of type {} for {}, using first: {}", type.getSimpleName(),
+                    requiredBy.beanClass.getSimpleName(), provider.name);
+        }
+        return provider;
+    }
+    
+    private void initializeBeans(BeanGraph graph) {
+        int parallelism = Integer.parseInt(getProperty("easy.beans.init-parallelism",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        graph.initialize(this::initializeGroup, parallelism);
+    }
+    
+    /**
+     * Crée puis injecte un groupe de beans : un bean seul, ou les beans d'un cycle
+     * de champs et méthodes {@code @Autowired}, tous créés avant d'être injectés.
+     * Les beans paresseux sont ignorés ici et créés par {@link #createLazily} au premier accès,
+     * les beans {@code prototype} et {@code pooled} par {@link #createScoped} à chaque demande.
+     */
+    private void initializeGroup(List<BeanDefinition> group) {
+        for (BeanDefinition definition : group) {
+            if (!definition.isSingleton() && (group.size() > 1 || definition.dependencies.contains(definition))) {
+                throw new IllegalStateException("Circular dependency involving " + definition.scope + " bean: " + definition);
+            }
+        }
+        for (BeanDefinition definition : group) {
+            if (definition.isSingleton() && !definition.lazy) {
+                registerBean(definition.name, definition.beanClass, instantiate(definition));
+            }
+        }
+        for (BeanDefinition definition : group) {
+            if (definition.isSingleton() && !definition.lazy) {
+                Object bean = beans.get(definition.name);
+                injectFieldDependencies(definition, bean);
+                injectMethodDependencies(definition, bean);
+            }
+        }
     }
     
     private boolean isPrimary(Class<?> clazz) {
@@ -198,189 +418,151 @@ public class EasyApplicationContext {
                 clazz.isAnnotationPresent(ConfigurationProperties.class);
     }
     
-    private void createConfigurationBean(Class<?> clazz) {
+    private Object instantiate(BeanDefinition definition) {
         try {
-            Object instance = createBeanInstance(clazz);
-            registerBean(clazz, instance);
+            Object instance = createBeanInstance(definition);
             
             // Méthodes @Bean
-            for (Method method : clazz.getDeclaredMethods()) {
-                if (method.isAnnotationPresent(Component.class)) {
-                    Object bean = method.invoke(instance);
-                    if (bean != null) {
-                        String beanName = getMethodBeanName(method);
-                        registerBean(beanName, bean.getClass(), bean);
+            if (definition.configuration) {
+                for (Method method : definition.beanClass.getDeclaredMethods()) {
+                    if (method.isAnnotationPresent(Component.class)) {
+                        method.setAccessible(true);
+                        Object bean = method.invoke(instance);
+                        if (bean != null) {
+                            registerBean(getMethodBeanName(method), bean.getClass(), bean);
+                        }
                     }
                 }
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create configuration: " + clazz.getName(), e);
-        }
-    }
-    
-    private void createBean(Class<?> clazz) {
-        try {
-            Object instance = createBeanInstance(clazz);
-            registerBean(clazz, instance);
-        } catch (Exception e) {
-            throw  new RuntimeException("Failed to create bean: " + clazz.getName(), e);
+            
+            // Liée dès la construction, avant d'être injectée ailleurs
+            if (definition.beanClass.isAnnotationPresent(ConfigurationProperties.class)) {
+                bindConfigurationProperties(instance);
+            }
+            return instance;
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException("Failed to create bean: " + definition.beanClass.getName(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to create bean: " + definition.beanClass.getName(), e);
         }
     }
     
-    private void registerBean(Class<?> clazz, Object instance) {
-        String beanName = getBeanName(clazz);
-        registerBean(beanName, clazz, instance);
-    }
-    
     private void registerBean(String beanName, Class<?> clazz, Object instance) {
         beans.put(beanName, instance);
         beansByType.put(clazz, instance);
-        System.out.println("  ✅ Registered: " + clazz.getSimpleName() + " as '" + beanName + "'");
+        log.debug("Registered: {} as '{}'", clazz.getSimpleName(), beanName);
     }
     
-    
-    private Object createBeanInstance(Class<?> clazz) throws Exception {
-        Constructor<?>[] constructors = clazz.getConstructors();
-        
-        Constructor<?> autowiredConstructor = Arrays.stream(constructors)
-                .filter(c -> c.isAnnotationPresent(Autowired.class))
-                .findFirst()
-                .orElse(null);
-        
-        if (autowiredConstructor != null) {
-            return autowiredConstructor.newInstance(resolveConstructorParameters(autowiredConstructor));
+    private Object createBeanInstance(BeanDefinition definition) throws ReflectiveOperationException {
+        Supplier<Object> factory = factories.get(definition.beanClass);
+        if (factory != null) {
+            return factory.get();
         }
-        
-        // Constructeur avec paramètres
-        Constructor<?> paramConstructor = Arrays.stream(constructors)
-                .filter(c -> c.getParameterCount() > 0)
-                .findFirst()
-                .orElse(null);
-        
-        if (paramConstructor != null) {
-            try {
-                return paramConstructor.newInstance(resolveConstructorParameters(paramConstructor));
-            } catch (Exception e) {
-            }
+        return definition.constructor.newInstance(
+                resolveArguments(definition.constructor.getParameters(), definition.constructorArguments));
+    }
+    
+    private Object[] resolveArguments(Parameter[] parameters, BeanDefinition.InjectionPoint[] injections) {
+        Object[] args = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            args[i] = injections[i] == null ?
+                    resolveValue(parameters[i].getAnnotation(Value.class).value(), parameters[i].getType()) :
+                    resolveInjection(injections[i]);
         }
-        
-        return clazz.getDeclaredConstructor().newInstance();
+        return args;
     }
     
-    private Object[] resolveConstructorParameters(Constructor<?> constructor) {
-        return Arrays.stream(constructor.getParameters())
-                .map(param -> {
-                    if (param.isAnnotationPresent(Value.class)) {
-                        return resolveValue(param.getAnnotation(Value.class).value(), param.getType());
-                    }
-                    
-                    String qualifier = param.isAnnotationPresent(Qualifier.class) ?
-                            param.getAnnotation(Qualifier.class).value() : null;
-                    
-                    Object dependency = findBeanForInjection(param.getType(), qualifier);
-                    if (dependency == null) {
-                        throw new RuntimeException("No bean found for: " + param.getType().getName());
-                    }
-                    return dependency;
-                })
-                .toArray();
+    private Object resolveInjection(BeanDefinition.InjectionPoint injection) {
+        switch (injection.kind) {
+            case PROXY:
+                return LazyReference.proxy(injection.type,
+                        new LazyReference(injection.provider.name, () -> lookup(injection.provider)));
+            case SUPPLIER:
+                // Un prototype n'est pas mémorisé : chaque get() crée une nouvelle instance
+                if (!injection.provider.owner.isSingleton()) {
+                    return (Supplier<Object>) () -> lookup(injection.provider);
+                }
+                return new LazyReference(injection.provider.name, () -> lookup(injection.provider));
+            default:
+                return lookup(injection.provider);
+        }
     }
-    private Object findBeanForInjection(Class<?> type, String qualifierName) {
-        System.out.println("🔍 [INJECTION] Looking for: " + type.getName() +
-                (qualifierName != null ? " (qualifier: " + qualifierName + ")" : ""));
-        
-        // 1. Qualifier
-        if (qualifierName != null && !qualifierName.isEmpty()) {
-            Object bean = beans.get(qualifierName);
-            if (bean != null && type.isAssignableFrom(bean.getClass())) {
-                System.out.println("  ✅ Found by qualifier: " + qualifierName);
-                return bean;
-            }
+    
+    private Object lookup(BeanDefinition.Provider provider) {
+        if (!provider.owner.isSingleton()) {
+            return newPrototype(provider.owner);
         }
-        
-        // 2. Type exact dans beansByType
-        Object bean = beansByType.get(type);
-        if (bean != null) {
-            System.out.println("  ✅ Found by exact type in beansByType: " + type.getName());
-            return bean;
+        Object bean = beans.get(provider.name);
+        if (bean == null && provider.owner.lazy) {
+            bean = createLazily(provider.owner);
         }
-        
-        // 3. Interface dans beansByInterface
-        bean = beansByInterface.get(type);
-        if (bean != null) {
-            System.out.println("  ✅ Found by interface in beansByInterface: " + type.getName());
-            return bean;
+        if (bean == null) {
+            throw new IllegalStateException("Bean '" + provider.name + "' is not initialized yet");
         }
-        
-        // 4. Fallback direct: recherche manuelle dans tous les beans
-        if (type.isInterface()) {
-            System.out.println("  🔄 Fallback: searching for interface implementation in all beans");
-            for (Object beanInstance : beans.values()) {
-                if (type.isAssignableFrom(beanInstance.getClass())) {
-                    System.out.println("  ✅ Found by fallback search: " + type.getName() + " -> " + beanInstance.getClass().getSimpleName());
-                    // Mettre en cache pour les prochaines fois
-                    beansByInterface.put(type, beanInstance);
-                    return beanInstance;
-                }
+        return bean;
+    }
+    
+    /**
+     * Crée un bean paresseux et ses dépendances directes. Le verrou est unique pour éviter
+     * tout interblocage entre deux beans paresseux qui se référencent ; un cycle de champs
+     * se résout grâce à {@code earlyBeans}, et le bean n'est publié qu'une fois injecté.
+     */
+    private Object createLazily(BeanDefinition definition) {
+        synchronized (lazyLock) {
+            Object bean = beans.get(definition.name);
+            if (bean == null) {
+                bean = earlyBeans.get(definition.name);
+            }
+            if (bean != null) {
+                return bean;
+            }
+            
+            long start = System.nanoTime();
+            Object instance = instantiate(definition);
+            earlyBeans.put(definition.name, instance);
+            try {
+                injectFieldDependencies(definition, instance);
+                injectMethodDependencies(definition, instance);
+            } finally {
+                earlyBeans.remove(definition.name);
             }
+            registerBean(definition.name, definition.beanClass, instance);
+            log.debug("Lazy bean '{}' created in {} ms", definition.name, (System.nanoTime() - start) / 1_000_000);
+            return instance;
         }
-        
-        // 5. Recherche par assignabilité dans beansByType
-        bean = beansByType.entrySet().stream()
-                .filter(entry -> type.isAssignableFrom(entry.getKey()))
-                .map(Map.Entry::getValue)
-                .findFirst()
-                .orElse(null);
-        
-        if (bean != null) {
-            System.out.println("  ✅ Found by assignability in beansByType: " + type.getName());
-            return bean;
+    }
+    
+    private Object newPrototype(BeanDefinition definition) {
+        if (definition.pool != null) {
+            throw new IllegalStateException("Pooled bean '" + definition.name + "' must be leased with leaseBean()");
         }
-        
-        System.out.println("❌ [INJECTION] No bean found for: " + type.getName());
-        System.out.println("   Available beans: " + beans.keySet());
-        System.out.println("   Available beansByType: " + beansByType.keySet().stream()
-                .map(Class::getSimpleName)
-                .collect(Collectors.joining(", ")));
-        System.out.println("   Available beansByInterface: " + beansByInterface.keySet().stream()
-                .map(Class::getSimpleName)
-                .collect(Collectors.joining(", ")));
-        
-        return null;
+        return createScoped(definition);
     }
     
-    private void injectDependencies() {
-        System.out.println("💉 Injecting dependencies...");
-        beans.values().forEach(bean -> {
-            injectFieldDependencies(bean);
-            injectMethodDependencies(bean);
-        });
+    /**
+     * Nouvelle instance d'un bean {@code prototype} ou {@code pooled}, injectée mais jamais enregistrée.
+     */
+    private Object createScoped(BeanDefinition definition) {
+        Object instance = instantiate(definition);
+        injectFieldDependencies(definition, instance);
+        injectMethodDependencies(definition, instance);
+        return instance;
     }
     
-    private void injectFieldDependencies(Object bean) {
-        for (Field field : bean.getClass().getDeclaredFields()) {
+    private void injectFieldDependencies(BeanDefinition definition, Object bean) {
+        for (Field field : definition.beanClass.getDeclaredFields()) {
             if (field.isAnnotationPresent(Autowired.class)) {
-                injectField(bean, field);
+                injectField(bean, field, definition.fieldInjections.get(field));
             } else if (field.isAnnotationPresent(Value.class)) {
                 injectValue(bean, field);
             }
         }
     }
     
-    private void injectField(Object bean, Field field) {
+    private void injectField(Object bean, Field field, BeanDefinition.InjectionPoint injection) {
         field.setAccessible(true);
         try {
-            String qualifier = field.isAnnotationPresent(Qualifier.class) ?
-                    field.getAnnotation(Qualifier.class).value() : null;
-            
-            Object dependency = findBeanForInjection(field.getType(), qualifier);
-            if (dependency == null) {
-                throw new RuntimeException("No bean found for field: " + field.getType().getName());
-            }
-            
-            field.set(bean, dependency);
-            System.out.println("  💉 Injected " + field.getType().getSimpleName() +
-                    " into " + bean.getClass().getSimpleName() + "." + field.getName());
+            field.set(bean, resolveInjection(injection));
         } catch (IllegalAccessException e) {
             throw new RuntimeException("Failed to inject field: " + field.getName(), e);
         }
@@ -396,45 +578,22 @@ public class EasyApplicationContext {
         }
     }
     
-    private void injectMethodDependencies(Object bean) {
-        for (Method method : bean.getClass().getDeclaredMethods()) {
-            if (method.isAnnotationPresent(Autowired.class)) {
-                method.setAccessible(true);
-                try {
-                    Object[] args = Arrays.stream(method.getParameters())
-                            .map(param -> {
-                                if (param.isAnnotationPresent(Value.class)) {
-                                    return resolveValue(param.getAnnotation(Value.class).value(), param.getType());
-                                }
-                                
-                                String qualifier = param.isAnnotationPresent(Qualifier.class) ?
-                                        param.getAnnotation(Qualifier.class).value() : null;
-                                
-                                Object dependency = findBeanForInjection(param.getType(), qualifier);
-                                if (dependency == null) {
-                                    throw new RuntimeException("No bean found for method param: " + param.getType().getName());
-                                }
-                                return dependency;
-                            })
-                            .toArray();
-                    
-                    method.invoke(bean, args);
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to inject method: " + method.getName(), e);
-                }
+    private void injectMethodDependencies(BeanDefinition definition, Object bean) {
+        definition.methodInjections.forEach((method, injections) -> {
+            method.setAccessible(true);
+            try {
+                method.invoke(bean, resolveArguments(method.getParameters(), injections));
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to inject method: " + method.getName(), e);
             }
-        }
+        });
     }
     
-    private void bindConfigurationProperties() {
-        beans.values().stream()
-                .filter(bean -> bean.getClass().isAnnotationPresent(ConfigurationProperties.class))
-                .forEach(bean -> {
-                    ConfigurationProperties annotation = bean.getClass().getAnnotation(ConfigurationProperties.class);
-                    String prefix = annotation.prefix().isEmpty() ? annotation.value() : annotation.prefix();
-                    propertiesBinder.bind(bean, prefix);
-                    System.out.println("  ⚙️  Bound configuration: " + bean.getClass().getSimpleName() + " with prefix: " + prefix);
-                });
+    private void bindConfigurationProperties(Object bean) {
+        ConfigurationProperties annotation = bean.getClass().getAnnotation(ConfigurationProperties.class);
+        String prefix = annotation.prefix().isEmpty() ? annotation.value() : annotation.prefix();
+        propertiesBinder.bind(bean, prefix);
+        log.debug("Bound configuration: {} with prefix: {}", bean.getClass().getSimpleName(), prefix);
     }
     
     private Object resolveValue(String expression, Class<?> targetType) {
@@ -496,26 +655,138 @@ public class EasyApplicationContext {
         return name.isEmpty() ? method.getName() : name;
     }
     
+    /**
+     * Démarre le serveur sur {@code port} (aucune écoute TCP si négatif) et, si configurée,
+     * sur la socket Unix {@code server.unix-socket}.
+     */
     public void startServer(int port) {
-        vertx.createHttpServer()
-                .requestHandler(webRouter.getRouter())
-                .listen(port, result -> {
-                    if (result.succeeded()) {
-                        System.out.println("🚀 EasyApi server started on port " + port);
-                    } else {
-                        System.err.println("❌ Failed to start server: " + result.cause().getMessage());
-                    }
-                });
+        ServerProperties serverProperties = getBean(ServerProperties.class);
+        int instances = serverProperties.getInstances();
+        boolean nativeTransport = vertx.isNativeTransportEnabled();
+        HttpServerOptions serverOptions = ServerOptionsFactory.create(serverProperties, nativeTransport);
+        List<SocketAddress> addresses = ServerOptionsFactory.listenAddresses(serverProperties, port, nativeTransport);
+        String listening = addresses.stream()
+                .map(address -> address.path() != null ? "unix:" + address.path() : address.host() + ":" + address.port())
+                .collect(Collectors.joining(", "));
+        
+        ServerOptionsFactory.releaseStaleSocket(vertx, serverProperties.getUnixSocket(), released -> {
+            if (released.failed()) {
+                log.error("Failed to start server: {}", released.cause().getMessage());
+                return;
+            }
+            vertx.deployVerticle(() -> new EasyServerVerticle(webRouter, serverOptions, addresses),
+                    new DeploymentOptions().setInstances(instances),
+                    result -> {
+                        if (result.succeeded()) {
+                            log.info("EasyApi server started on {} ({} instances, {} transport)", listening,
+                                    instances, nativeTransport ? "native" : "NIO");
+                        } else {
+                            log.error("Failed to start server: {}", result.cause().getMessage());
+                        }
+                    });
+        });
     }
     
+    /**
+     * Bean du type exact, sinon le bean retenu pour ce type (classe parente ou interface) :
+     * unique candidat ou {@code @Primary}. Un bean paresseux est créé au besoin,
+     * un bean {@code prototype} à chaque appel ; un bean {@code pooled} s'obtient par {@link #leaseBean}.
+     *
+     * @return le bean, ou {@code null} si aucun bean ne correspond ou si plusieurs conviennent sans {@code @Primary}
+     */
     @SuppressWarnings("unchecked")
     public <T> T getBean(Class<T> clazz) {
-        return (T) beansByType.get(clazz);
+        Object bean = beansByType.get(clazz);
+        if (bean == null) {
+            BeanDefinition.Provider provider = typeIndex.resolveUnique(clazz);
+            if (provider != null) {
+                bean = lookup(provider);
+            }
+        }
+        return (T) bean;
+    }
+    
+    /**
+     * Tous les beans assignables à {@code type}, par nom, dans l'ordre des noms de classe.
+     * Les beans paresseux concernés sont créés au premier appel ; le résultat est ensuite
+     * mis en cache, ce qui permet de l'appeler sur un chemin chaud.
+     * Un bean {@code prototype} donne une nouvelle instance (et le résultat n'est alors pas
+     * mis en cache), un bean {@code pooled} est ignoré.
+     *
+     * @return une map non modifiable, vide si aucun bean ne correspond
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getBeansOfType(Class<T> type) {
+        Map<String, Object> cached = beansOfType.get(type);
+        if (cached == null) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            boolean singletons = true;
+            for (BeanDefinition.Provider provider : typeIndex.candidates(type)) {
+                if (provider.owner.pool == null) {
+                    result.put(provider.name, lookup(provider));
+                    singletons &= provider.owner.isSingleton();
+                }
+            }
+            cached = Collections.unmodifiableMap(result);
+            if (singletons) {
+                beansOfType.putIfAbsent(type, cached);
+            }
+        }
+        return (Map<String, T>) cached;
+    }
+    
+    /**
+     * Prête une instance du bean de ce type, à rendre avec {@link BeanLease#close()}.
+     * Pour un bean qui n'est pas {@code pooled}, renvoie simplement {@link #getBean(Class)}.
+     *
+     * @throws IllegalStateException si aucun bean ne correspond, ou si plusieurs conviennent sans {@code @Primary}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> BeanLease<T> leaseBean(Class<T> type) {
+        BeanDefinition.Provider provider = typeIndex.resolveUnique(type);
+        if (provider == null) {
+            throw new IllegalStateException((typeIndex.isAmbiguous(type) ? "Multiple beans found for " : "No bean found for ") +
+                    type.getName());
+        }
+        if (provider.owner.pool != null) {
+            return (BeanLease<T>) provider.owner.pool.lease();
+        }
+        return new BeanLease<>((T) lookup(provider), null);
+    }
+    
+    /**
+     * @return la portée ({@link Scope}) du bean retenu pour ce type, ou {@code null} si aucun bean
+     * ne correspond ou si plusieurs conviennent sans {@code @Primary}
+     */
+    public String getBeanScope(Class<?> type) {
+        BeanDefinition.Provider provider = typeIndex.resolveUnique(type);
+        return provider == null ? null : provider.owner.scope;
     }
     
     @SuppressWarnings("unchecked")
     public <T> T getBean(String name) {
-        return (T) beans.get(name);
+        Object bean = beans.get(name);
+        if (bean == null) {
+            BeanDefinition definition = definitionsByName.get(name);
+            if (definition != null && definition.lazy) {
+                bean = createLazily(definition);
+            } else if (definition != null && !definition.isSingleton()) {
+                bean = newPrototype(definition);
+            }
+        }
+        return (T) bean;
+    }
+    
+    /**
+     * @return {@code true} si le bean est paresseux et n'a pas encore été créé
+     */
+    public boolean isLazyBean(Class<?> clazz) {
+        BeanDefinition definition = definitionsByType.get(clazz);
+        return definition != null && definition.lazy && !beansByType.containsKey(clazz);
+    }
+    
+    public String getProperty(String key, String defaultValue) {
+        return properties.getString(key, System.getProperty(key, defaultValue));
     }
     
     public Vertx getVertx() {
@@ -529,4 +800,8 @@ public class EasyApplicationContext {
     public EasyWebRouter getWebRouter() {
         return webRouter;
     }
+    
+    public StartupReport getStartupReport() {
+        return startupReport;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package omm.mtk.easy.api.core;
+
+import java.io.PrintStream;
+
+/**
+ * Façade de log minimale du framework, silencieuse par défaut.
+ * <p>
+ * Le niveau global vient de {@code easy.log.level} (propriété système ou {@code application.properties}),
+ * {@code INFO} par défaut : seules les lignes de synthèse du démarrage sont alors écrites, le détail
+ * par classe, bean ou injection passe en {@code DEBUG}. Le message n'est formaté ({@code {}} remplacés
+ * par les arguments) que si le niveau est actif ; dans les boucles, tester {@link #isDebugEnabled()} avant.
+ *
+ * @author mahatoky rasolonirina
+ */
+public final class EasyLogger {
+    public static final String LEVEL_PROPERTY = "easy.log.level";
+    
+    public enum Level {TRACE, DEBUG, INFO, WARN, ERROR, OFF}
+    
+    private static volatile Level level = parseLevel(System.getProperty(LEVEL_PROPERTY), Level.INFO);
+    
+    private final String name;
+    
+    private EasyLogger(String name) {
+        this.name = name;
+    }
+    
+    public static EasyLogger getLogger(Class<?> type) {
+        return new EasyLogger(type.getSimpleName());
+    }
+    
+    public static Level getLevel() {
+        return level;
+    }
+    
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+    
+    /**
+     * @return le niveau correspondant à {@code value} (insensible à la casse), ou {@code defaultLevel}
+     */
+    public static Level parseLevel(String value, Level defaultLevel) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultLevel;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+    
+    public boolean isEnabled(Level messageLevel) {
+        return messageLevel != Level.OFF && messageLevel.compareTo(level) >= 0;
+    }
+    
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+    
+    public void debug(String message, Object... args) {
+        log(Level.DEBUG, message, args, null);
+    }
+    
+    public void info(String message, Object... args) {
+        log(Level.INFO, message, args, null);
+    }
+    
+    public void warn(String message, Object... args) {
+        log(Level.WARN, message, args, null);
+    }
+    
+    public void error(String message, Object... args) {
+        log(Level.ERROR, message, args, null);
+    }
+    
+    public void error(String message, Throwable failure) {
+        log(Level.ERROR, message, new Object[0], failure);
+    }
+    
+    private void log(Level messageLevel, String message, Object[] args, Throwable failure) {
+        if (!isEnabled(messageLevel)) {
+            return;
+        }
+        String line = "[" + messageLevel + "] " + name + " - " + format(message, args);
+        PrintStream out = messageLevel.compareTo(Level.WARN) >= 0 ? System.err : System.out;
+        synchronized (out) {
+            out.println(line);
+            if (failure != null) {
+                failure.printStackTrace(out);
+            }
+        }
+    }
+    
+    private static String format(String message, Object[] args) {
+        if (args.length == 0) {
+            return message;
+        }
+        StringBuilder out = new StringBuilder(message.length() + 16 * args.length);
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while (argIndex < args.length && (placeholder = message.indexOf("{}", start)) >= 0) {
+            out.append(message, start, placeholder).append(args[argIndex++]);
+            start = placeholder + 2;
+        }
+        return out.append(message, start, message.length()).toString();
+    }
+}
@@ -0,0 +1,46 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.Router;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Une instance de serveur HTTP, déployée une fois par event loop.
+ * Vert.x répartit les connexions entre les instances qui écoutent sur la même adresse.
+ * Chaque adresse (port TCP, socket Unix) a son serveur, tous servis par le même routeur.
+ *
+ * @author mahatoky rasolonirina
+ */
+public class EasyServerVerticle extends AbstractVerticle {
+    private final EasyWebRouter webRouter;
+    private final HttpServerOptions serverOptions;
+    private final List<SocketAddress> addresses;
+    
+    public EasyServerVerticle(EasyWebRouter webRouter, HttpServerOptions serverOptions, List<SocketAddress> addresses) {
+        this.webRouter = webRouter;
+        this.serverOptions = serverOptions;
+        this.addresses = addresses;
+    }
+    
+    @Override
+    public void start(Promise<Void> startPromise) {
+        Router router = webRouter.createRouter(vertx);
+        AtomicInteger pending = new AtomicInteger(addresses.size());
+        for (SocketAddress address : addresses) {
+            vertx.createHttpServer(serverOptions)
+                    .requestHandler(router)
+                    .listen(address, result -> {
+                        if (result.failed()) {
+                            startPromise.tryFail(result.cause());
+                        } else if (pending.decrementAndGet() == 0) {
+                            startPromise.tryComplete();
+                        }
+                    });
+        }
+    }
+}
@@ -1,61 +1,194 @@
 package omm.mtk.easy.api.core;
 
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
-import io.vertx.core.json.Json;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.BodyHandler;
 import omm.mtk.easy.api.annotation.*;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 public class EasyWebRouter {
-    private final Router router;
+    // Ticket de cache de la requête en cours, posé sur le RoutingContext quand la réponse est à mettre en cache
+    private static final String CACHE_KEY = "easy.cache.key";
+    // Chronomètre de la requête en cours, posé uniquement avec easy.http.server-timing
+    private static final String TIMER_KEY = "easy.server-timing";
+    
+    private final io.vertx.core.Vertx vertx;
     private final EasyApplicationContext context;
-    private final Map<Class<?>, Object> controllerAdvices = new HashMap<>();
+    private final List<RouteDefinition> routes = new ArrayList<>();
+    private Router router;
+    private final ExceptionHandlerRegistry exceptionHandlers = new ExceptionHandlerRegistry();
+    private final Map<String, WorkerPool> workerPools = new ConcurrentHashMap<>();
+    private final JsonCodec jsonCodec;
+    private final ParameterBinder parameterBinder;
+    private final JsonStreamWriter jsonStreamWriter;
+    private final ResponseCacheManager cacheManager;
+    private final boolean strongETags;
+    // null si server.compression.enabled est désactivé
+    private final ResponseCompression compression;
+    // null si easy.metrics.enabled est désactivé
+    private final HttpMetrics metrics;
+    private final String metricsPath;
+    // null si easy.http.server-timing est désactivé
+    private final ServerTiming serverTiming;
     
     public EasyWebRouter(io.vertx.core.Vertx vertx, EasyApplicationContext context) {
-        this.router = Router.router(vertx);
+        this.vertx = vertx;
         this.context = context;
+        this.jsonCodec = resolveJsonCodec();
+        this.parameterBinder = new ParameterBinder(jsonCodec,
+                Long.parseLong(context.getProperty("easy.body.max-size", "10485760")), context, this::rejectStreamingBody);
+        this.jsonStreamWriter = new JsonStreamWriter(jsonCodec);
+        this.cacheManager = context.getBean(ResponseCacheManager.class);
+        this.strongETags = Boolean.parseBoolean(context.getProperty("easy.http.etag", "false"));
+        ServerProperties.Compression compressionProperties = context.getBean(ServerProperties.class).getCompression();
+        this.compression = compressionProperties.isEnabled() ? new ResponseCompression(compressionProperties) : null;
         initializeControllerAdvices();
         setupRoutes();
+        this.serverTiming = Boolean.parseBoolean(context.getProperty("easy.http.server-timing", "false")) ?
+                new ServerTiming(routes) : null;
+        this.metrics = Boolean.parseBoolean(context.getProperty("easy.metrics.enabled", "false")) ?
+                new HttpMetrics(routes, serverTiming) : null;
+        this.metricsPath = context.getProperty("easy.metrics.path", "/metrics");
     }
     
     private void initializeControllerAdvices() {
         for (Class<?> clazz : context.getScannedClasses()) {
             if (clazz.isAnnotationPresent(ControllerAdvice.class)) {
-                Object advice = context.getBean(clazz);
-                controllerAdvices.put(clazz, advice);
+                exceptionHandlers.register(context.getBean(clazz));
             }
         }
     }
     
+    private JsonCodec resolveJsonCodec() {
+        // Un bean JsonCodec de l'application (le @Primary s'il y en a plusieurs) remplace le codec par défaut
+        JsonCodec codec = context.getBean(JsonCodec.class);
+        if (codec != null) {
+            return codec;
+        }
+        boolean pretty = Boolean.parseBoolean(context.getProperty("easy.json.pretty", "false"));
+        return new VertxJsonCodec(pretty);
+    }
+    
     private void setupRoutes() {
-        router.route().handler(BodyHandler.create());
-        router.route().handler(this::setupCors);
-        
         for (Class<?> clazz : context.getScannedClasses()) {
             if (clazz.isAnnotationPresent(RestController.class)) {
                 registerController(clazz);
             }
         }
+    }
+    
+    /**
+     * Crée un nouveau {@link Router} à partir des routes compilées.
+     * Chaque instance de serveur (une par event loop) possède son propre routeur ;
+     * les plans de route, contrôleurs et beans restent partagés.
+     */
+    public Router createRouter(io.vertx.core.Vertx vertx) {
+        Router router = Router.router(vertx);
+        router.route().handler(this::setupCors);
+        if (metrics != null) {
+            router.get(metricsPath).handler(this::writeMetrics);
+        }
+        
+        for (RouteDefinition route : routes) {
+            String vertxPath = convertSpringPathToVertx(route.getPath());
+            if (metrics != null) {
+                RouteMetrics routeMetrics = metrics.forRoute(route);
+                router.route(route.getHttpMethod(), vertxPath).handler(routeMetrics::start);
+            }
+            if (route.getBodyMode() != RouteDefinition.BodyMode.NONE) {
+                router.route(route.getHttpMethod(), vertxPath).handler(createBodyHandler(route));
+            }
+            router.route(route.getHttpMethod(), vertxPath)
+                    .handler(createTimedHandler(route));
+        }
         
         router.route().last().handler(this::handleNotFound);
+        return router;
+    }
+    
+    /**
+     * Le corps n'est lu que pour les routes qui en ont besoin. Un Content-Length au-delà
+     * de la limite est refusé en 413 avant toute lecture ; les corps chunked trop gros
+     * sont coupés par le BodyHandler (ou par le flux pour les corps en streaming).
+     */
+    private Handler<RoutingContext> createBodyHandler(RouteDefinition route) {
+        long limit = route.getBodyLimit();
+        BodyHandler bodyHandler = route.getBodyMode() == RouteDefinition.BodyMode.BUFFERED ?
+                BodyHandler.create(false).setBodyLimit(limit) : null;
+        
+        return ctx -> {
+            String contentLength = ctx.request().getHeader("content-length");
+            if (limit >= 0 && contentLength != null && parseLength(contentLength) > limit) {
+                handlePayloadTooLarge(ctx, new PayloadTooLargeException(limit));
+            } else if (bodyHandler != null) {
+                bodyHandler.handle(ctx);
+            } else {
+                ctx.next();
+            }
+        };
+    }
+    
+    private long parseLength(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
     
+    /**
+     * Le reste du corps ne sera pas lu : en HTTP/1.x la connexion est fermée après la réponse,
+     * en HTTP/2 la fin de la réponse termine le flux seul.
+     */
+    private void handlePayloadTooLarge(RoutingContext ctx, PayloadTooLargeException exception) {
+        if (ctx.request().version() != HttpVersion.HTTP_2) {
+            ctx.response().putHeader("connection", "close");
+        }
+        handleDefaultException(ctx, exception);
+    }
+    
+    /**
+     * Corps lu en {@code InputStream} coupé en cours de lecture : la requête est en pause, le 413 part
+     * tout de suite et la connexion HTTP/1.x est fermée une fois la réponse écrite. L'exception que reçoit
+     * ensuite le contrôleur n'écrit plus rien (voir {@link #handleFailure}).
+     */
+    private void rejectStreamingBody(RoutingContext ctx, PayloadTooLargeException exception) {
+        if (ctx.response().ended()) {
+            return;
+        }
+        if (ctx.request().version() != HttpVersion.HTTP_2) {
+            ctx.addBodyEndHandler(v -> ctx.request().connection().close());
+        }
+        handlePayloadTooLarge(ctx, exception);
+    }
+    
+    /**
+     * Un contrôleur {@code @Lazy} n'est créé qu'à la première requête sur l'une de ses routes.
+     */
     private void registerController(Class<?> controllerClass) {
-        Object controller = context.getBean(controllerClass);
+        Object controller = context.isLazyBean(controllerClass) ? null : context.getBean(controllerClass);
         String basePath = getBasePath(controllerClass);
         
         for (Method method : controllerClass.getDeclaredMethods()) {
-            registerMethodRoute(controller, method, basePath);
+            registerMethodRoute(controllerClass, controller, method, basePath);
         }
     }
     
-    private void registerMethodRoute(Object controller, Method method, String basePath) {
+    private void registerMethodRoute(Class<?> controllerClass, Object controller, Method method, String basePath) {
         String httpMethod = null;
         String path = "";
         
@@ -78,250 +211,394 @@ public class EasyWebRouter {
         
         if (httpMethod != null) {
             String fullPath = normalizePath(basePath + normalizePath(path));
-            String vertxPath = convertSpringPathToVertx(fullPath);
             
             io.vertx.core.http.HttpMethod vertxHttpMethod = convertToVertxHttpMethod(httpMethod);
-            
-            router.route(vertxHttpMethod, vertxPath)
-                    .handler(createHandler(controller, method));
+            WorkerPool workerPool = resolveWorkerPool(method);
+            RouteDefinition.BodyMode bodyMode = parameterBinder.bodyMode(method, vertxHttpMethod);
+            if (workerPool == null && parameterBinder.readsBodyAsInputStream(method)) {
+                throw new IllegalStateException("@RequestBody InputStream requires a @Blocking route: " +
+                        method.getDeclaringClass().getName() + "." + method.getName());
+            }
+            ResponseCache responseCache = resolveResponseCache(method, vertxHttpMethod);
+            routes.add(new RouteDefinition(
+                    vertxHttpMethod,
+                    fullPath,
+                    method,
+                    controller != null ? MethodInvoker.compile(controller, method) :
+                            MethodInvoker.lazy(() -> context.getBean(controllerClass), method),
+                    parameterBinder.bind(method),
+                    createResponseWriter(method, workerPool, responseCache),
+                    workerPool,
+                    bodyMode,
+                    parameterBinder.bodyLimit(method),
+                    responseCache));
+        }
+    }
+    
+    private ResponseCache resolveResponseCache(Method method, HttpMethod httpMethod) {
+        Cacheable cacheable = method.getAnnotation(Cacheable.class);
+        if (cacheable == null) {
+            return null;
         }
+        if (httpMethod != HttpMethod.GET) {
+            throw new IllegalStateException("@Cacheable is only supported on @GetMapping routes: " +
+                    method.getDeclaringClass().getName() + "." + method.getName());
+        }
+        String name = cacheable.value().isEmpty() ?
+                method.getDeclaringClass().getSimpleName() + "." + method.getName() : cacheable.value();
+        return cacheManager.register(name, cacheable);
+    }
+    
+    private WorkerPool resolveWorkerPool(Method method) {
+        Blocking blocking = method.isAnnotationPresent(Blocking.class) ?
+                method.getAnnotation(Blocking.class) :
+                method.getDeclaringClass().getAnnotation(Blocking.class);
+        return blocking == null ? null : getWorkerPool(blocking.value());
+    }
+    
+    public WorkerPool getWorkerPool(String name) {
+        return workerPools.computeIfAbsent(name, poolName -> {
+            String prefix = "easy.worker." + poolName + ".";
+            return new WorkerPool(poolName,
+                    Integer.parseInt(context.getProperty(prefix + "size", "20")),
+                    Integer.parseInt(context.getProperty(prefix + "queue-size", "1000")),
+                    Boolean.parseBoolean(context.getProperty(prefix + "virtual", "false")));
+        });
     }
     
-    private Handler<RoutingContext> createHandler(Object controller, Method method) {
+    public Map<String, WorkerPool> getWorkerPools() {
+        return Collections.unmodifiableMap(workerPools);
+    }
+    
+    /**
+     * Avec {@code easy.http.server-timing}, chaque requête reçoit un chronomètre ; l'en-tête
+     * {@code Server-Timing} et les cumuls de la route sont faits juste avant l'envoi des en-têtes.
+     */
+    private Handler<RoutingContext> createTimedHandler(RouteDefinition route) {
+        Handler<RoutingContext> handler = createHandler(route);
+        if (serverTiming == null) {
+            return handler;
+        }
+        ServerTiming.PhaseStats stats = serverTiming.forRoute(route);
         return ctx -> {
-            try {
-                Object[] args = resolveMethodParameters(method, ctx);
-                Object result = method.invoke(controller, args);
-                handleResponse(result, ctx, method);
-            } catch (Exception e) {
-                handleException(ctx, e, method);
-            }
+            ServerTiming.Timer timer = new ServerTiming.Timer();
+            ctx.put(TIMER_KEY, timer);
+            ctx.addHeadersEndHandler(v -> {
+                timer.end();
+                String header = timer.header();
+                if (header != null) {
+                    ctx.response().putHeader(ServerTiming.HEADER, header);
+                    stats.record(timer);
+                }
+            });
+            handler.handle(ctx);
         };
     }
     
-    private Object[] resolveMethodParameters(Method method, RoutingContext ctx) {
-        Parameter[] parameters = method.getParameters();
-        Object[] args = new Object[parameters.length];
-        
-        for (int i = 0; i < parameters.length; i++) {
-            args[i] = resolveParameter(parameters[i], ctx);
+    private void beginPhase(RoutingContext ctx, int phase) {
+        if (serverTiming != null) {
+            ServerTiming.Timer timer = ctx.get(TIMER_KEY);
+            if (timer != null) {
+                timer.begin(phase);
+            }
         }
-        
-        return args;
     }
     
-    private Object resolveParameter(Parameter param, RoutingContext ctx) {
-        Class<?> paramType = param.getType();
-        
-        if (param.isAnnotationPresent(RequestBody.class)) {
-            return resolveRequestBody(param, ctx);
+    private void endPhase(RoutingContext ctx) {
+        if (serverTiming != null) {
+            ServerTiming.Timer timer = ctx.get(TIMER_KEY);
+            if (timer != null) {
+                timer.end();
+            }
         }
-        
-        if (param.isAnnotationPresent(RequestParam.class)) {
-            return resolveRequestParam(param, ctx);
+    }
+    
+    private Handler<RoutingContext> createHandler(RouteDefinition route) {
+        Handler<RoutingContext> handler = createInvokingHandler(route);
+        ResponseCache cache = route.getResponseCache();
+        if (cache == null) {
+            return handler;
         }
-        
-        if (param.isAnnotationPresent(PathVariable.class)) {
-            return resolvePathVariable(param, ctx);
+        // Réponse en cache : écrite telle quelle, sans résoudre les paramètres ni appeler le contrôleur
+        return ctx -> {
+            String key = cache.key(ctx);
+            EncodedResponse cached = cache.get(key);
+            if (cached != null) {
+                writeEncoded(ctx, cached, cache.isPrecompress());
+            } else {
+                ctx.put(CACHE_KEY, cache.ticket(key));
+                handler.handle(ctx);
+            }
+        };
+    }
+    
+    private Handler<RoutingContext> createInvokingHandler(RouteDefinition route) {
+        MethodInvoker invoker = route.getInvoker();
+        if (route.isBlocking()) {
+            return ctx -> dispatchBlocking(ctx, route);
         }
-        
-        if (param.isAnnotationPresent(RequestHeader.class)) {
-            return resolveRequestHeader(param, ctx);
+        return ctx -> {
+            try {
+                beginPhase(ctx, ServerTiming.BIND);
+                Object[] args = route.resolveArguments(ctx);
+                beginPhase(ctx, ServerTiming.INVOKE);
+                Object result = invoker.invoke(args);
+                endPhase(ctx);
+                writeResult(ctx, route, result);
+            } catch (Exception e) {
+                handleException(ctx, e, route);
+            }
+        };
+    }
+    
+    /**
+     * Les paramètres sont résolus sur l'event loop, seul l'appel du contrôleur part sur le pool ;
+     * la réponse est ensuite écrite sur le contexte Vert.x d'origine.
+     */
+    private void dispatchBlocking(RoutingContext ctx, RouteDefinition route) {
+        Object[] args;
+        try {
+            beginPhase(ctx, ServerTiming.BIND);
+            args = route.resolveArguments(ctx);
+            endPhase(ctx);
+        } catch (Exception e) {
+            handleException(ctx, e, route);
+            return;
         }
         
-        if (paramType == RoutingContext.class) {
-            return ctx;
-        }
+        Context eventLoop = Vertx.currentContext();
+        boolean accepted = route.getWorkerPool().submit(() -> {
+            try {
+                // Sans l'attente dans la file du pool
+                beginPhase(ctx, ServerTiming.INVOKE);
+                Object result = route.getInvoker().invoke(args);
+                endPhase(ctx);
+                eventLoop.runOnContext(v -> writeResult(ctx, route, result));
+            } catch (Exception e) {
+                eventLoop.runOnContext(v -> handleException(ctx, e, route));
+            }
+        });
         
-        return getDefaultValue(paramType);
+        if (!accepted) {
+            handleRejected(ctx, route.getWorkerPool());
+        }
     }
     
-    private Object resolveRequestBody(Parameter param, RoutingContext ctx) {
-        String body = ctx.getBodyAsString();
-        if (body == null || body.trim().isEmpty()) {
-            return null;
-        }
-        
-        Class<?> paramType = param.getType();
+    private void writeResult(RoutingContext ctx, RouteDefinition route, Object result) {
         try {
-            if (paramType == String.class) {
-                return body;
+            if (route.isAsync() && isAsyncResult(result)) {
+                awaitAsyncResult(ctx, route, result);
+            } else {
+                route.getResponseWriter().write(ctx, result);
             }
-            return Json.decodeValue(body, paramType);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to parse request body", e);
+            handleException(ctx, e, route);
         }
     }
     
-    private Object resolveRequestParam(Parameter param, RoutingContext ctx) {
-        RequestParam annotation = param.getAnnotation(RequestParam.class);
-        String paramName = annotation.value().isEmpty() ? param.getName() : annotation.value();
-        Class<?> paramType = param.getType();
-        
-        String paramValue = ctx.request().getParam(paramName);
-        
-        if (paramValue == null) {
-            if (annotation.required() && annotation.defaultValue().isEmpty()) {
-                throw new RuntimeException("Required parameter '" + paramName + "' is missing");
-            }
-            return convertStringToType(annotation.defaultValue(), paramType);
-        }
-        
-        return convertStringToType(paramValue, paramType);
+    private boolean isAsyncResult(Object result) {
+        return result instanceof CompletionStage ||
+                result instanceof Future ||
+                result instanceof Promise;
     }
     
-    private Object resolvePathVariable(Parameter param, RoutingContext ctx) {
-        PathVariable annotation = param.getAnnotation(PathVariable.class);
-        String pathVarName = annotation.value().isEmpty() ? param.getName() : annotation.value();
-        Class<?> paramType = param.getType();
-        
-        String pathVarValue = ctx.pathParam(pathVarName);
-        
-        if (pathVarValue == null) {
-            throw new RuntimeException("Path variable '" + pathVarName + "' not found");
+    /**
+     * Libère l'event loop pendant l'attente : la réponse (ou l'échec, routé vers
+     * les {@code @ControllerAdvice}) est écrite sur le contexte Vert.x de la requête.
+     */
+    private void awaitAsyncResult(RoutingContext ctx, RouteDefinition route, Object result) {
+        Context eventLoop = Vertx.currentContext();
+        
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete((value, failure) ->
+                    runOnContext(eventLoop, () -> completeAsync(ctx, route, value, failure)));
+        } else {
+            Future<?> future = result instanceof Promise ? ((Promise<?>) result).future() : (Future<?>) result;
+            future.onComplete(asyncResult ->
+                    runOnContext(eventLoop, () -> completeAsync(ctx, route, asyncResult.result(), asyncResult.cause())));
         }
-        
-        return convertStringToType(pathVarValue, paramType);
     }
     
-    private Object resolveRequestHeader(Parameter param, RoutingContext ctx) {
-        RequestHeader annotation = param.getAnnotation(RequestHeader.class);
-        String headerName = annotation.value().isEmpty() ? param.getName() : annotation.value();
-        String headerValue = ctx.request().getHeader(headerName);
-        
-        if (headerValue == null) {
-            return getDefaultValue(param.getType());
+    private void completeAsync(RoutingContext ctx, RouteDefinition route, Object value, Throwable failure) {
+        if (failure == null) {
+            writeResult(ctx, route, value);
+            return;
         }
         
-        return convertStringToType(headerValue, param.getType());
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        handleFailure(ctx, cause, route);
     }
     
-    private Object convertStringToType(String value, Class<?> targetType) {
-        if (targetType == String.class) {
-            return value;
-        } else if (targetType == int.class || targetType == Integer.class) {
-            return Integer.parseInt(value);
-        } else if (targetType == long.class || targetType == Long.class) {
-            return Long.parseLong(value);
-        } else if (targetType == boolean.class || targetType == Boolean.class) {
-            return Boolean.parseBoolean(value);
-        } else if (targetType == double.class || targetType == Double.class) {
-            return Double.parseDouble(value);
-        } else if (targetType == float.class || targetType == Float.class) {
-            return Float.parseFloat(value);
+    private void runOnContext(Context eventLoop, Runnable action) {
+        if (eventLoop == null || Vertx.currentContext() == eventLoop) {
+            action.run();
+        } else {
+            eventLoop.runOnContext(v -> action.run());
         }
-        throw new RuntimeException("Unsupported parameter type: " + targetType.getName());
     }
     
-    private Object getDefaultValue(Class<?> type) {
-        if (type == int.class) return 0;
-        if (type == long.class) return 0L;
-        if (type == boolean.class) return false;
-        if (type == double.class) return 0.0;
-        if (type == float.class) return 0.0f;
-        return null;
+    private void handleRejected(RoutingContext ctx, WorkerPool workerPool) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Service Unavailable");
+        errorResponse.put("message", "Worker pool '" + workerPool.getName() + "' is saturated");
+        errorResponse.put("timestamp", System.currentTimeMillis());
+        errorResponse.put("path", ctx.request().path());
+        errorResponse.put("status", 503);
+        
+        ctx.response()
+                .setStatusCode(503)
+                .putHeader("content-type", "application/json")
+                .end(jsonCodec.encode(errorResponse));
+    }
+    
+    private ResponseWriter createResponseWriter(Method method, WorkerPool workerPool, ResponseCache cache) {
+        boolean isResponseBody = method.isAnnotationPresent(ResponseBody.class) ||
+                method.getDeclaringClass().isAnnotationPresent(ResponseBody.class);
+        return (ctx, result) -> handleResponse(result, ctx, isResponseBody, workerPool, cache);
     }
     
-    private void handleResponse(Object result, RoutingContext ctx, Method method) {
+    private void handleResponse(Object result, RoutingContext ctx, boolean isResponseBody, WorkerPool workerPool,
+                                ResponseCache cache) {
         if (result == null) {
             ctx.response().setStatusCode(204).end();
             return;
         }
         
-        if (result instanceof ResponseEntity) {
-            ResponseEntity<?> responseEntity = (ResponseEntity<?>) result;
-            ctx.response().setStatusCode(responseEntity.getStatus());
-            responseEntity.getHeaders().forEach(ctx.response()::putHeader);
-            
-            if (responseEntity.getBody() != null) {
-                ctx.response()
-                        .putHeader("content-type", "application/json")
-                        .end(Json.encodePrettily(responseEntity.getBody()));
-            } else {
-                ctx.response().end();
-            }
+        if (JsonStreamWriter.isStreamable(result)) {
+            jsonStreamWriter.write(ctx, result, workerPool);
             return;
         }
         
-        boolean isResponseBody = method.isAnnotationPresent(ResponseBody.class) ||
-                method.getDeclaringClass().isAnnotationPresent(ResponseBody.class);
+        // Validateurs fournis par le contrôleur : un client à jour reçoit un 304 sans que le corps soit construit
+        if (result instanceof ResponseEntity && ConditionalRequests.isConditional(ctx.request())) {
+            ResponseEntity<?> entity = (ResponseEntity<?>) result;
+            if (entity.getStatus() == 200 &&
+                    ConditionalRequests.isNotModified(ctx.request(), entity.getETag(), entity.getLastModified())) {
+                new EncodedResponse(200, entity.getHeaders(), null, null, entity.getETag(), entity.getLastModified())
+                        .writeNotModified(ctx.response());
+                return;
+            }
+        }
         
-        if (isResponseBody || !isSimpleType(result)) {
-            ctx.response()
-                    .putHeader("content-type", "application/json")
-                    .end(Json.encodePrettily(result));
+        beginPhase(ctx, ServerTiming.SERIALIZE);
+        EncodedResponse response = encodeResponse(result, isResponseBody,
+                strongETags && ctx.request().method() == HttpMethod.GET);
+        endPhase(ctx);
+        ResponseCache.Ticket ticket = cache != null ? ctx.get(CACHE_KEY) : null;
+        if (ticket != null && response.getStatus() == 200) {
+            cache.put(ticket, response);
+        }
+        writeEncoded(ctx, response, cache != null && cache.isPrecompress());
+    }
+    
+    /**
+     * Avec la compression activée, un corps sous {@code min-response-size} part en {@code identity} ;
+     * au-delà, Vert.x compresse à la volée, sauf pour une réponse {@code precompress} dont la variante
+     * gzip est envoyée telle quelle à un client qui l'accepte.
+     */
+    private void writeEncoded(RoutingContext ctx, EncodedResponse response, boolean precompressed) {
+        if (response.getStatus() == 200 &&
+                ConditionalRequests.isNotModified(ctx.request(), response.getETag(), response.getLastModified())) {
+            response.writeNotModified(ctx.response());
+            return;
+        }
+        Buffer body = response.getBody();
+        if (compression == null || body == null) {
+            response.writeTo(ctx.response());
+            return;
+        }
+        if (!compression.isCompressible(body.length())) {
+            response.writeTo(ctx.response(), ResponseCompression.IDENTITY, false);
+            return;
+        }
+        
+        ctx.response().putHeader("Vary", "Accept-Encoding");
+        String encoding = ResponseCompression.negotiate(ctx.request());
+        if (precompressed && ResponseCompression.GZIP.equals(encoding)) {
+            response.writeGzipTo(ctx.response(), compression.getLevel());
         } else {
-            ctx.response()
-                    .putHeader("content-type", "text/plain")
-                    .end(result.toString());
+            response.writeTo(ctx.response(), null, encoding != null);
         }
     }
     
-    private void handleException(RoutingContext ctx, Exception e, Method method) {
-        Throwable cause = e.getCause() != null ? e.getCause() : e;
+    /**
+     * Sans validateur fourni par le contrôleur, {@code computeETag} ajoute un ETag fort calculé sur le corps encodé.
+     */
+    private EncodedResponse encodeResponse(Object result, boolean isResponseBody, boolean computeETag) {
+        int status = 200;
+        Map<String, String> headers = Collections.emptyMap();
+        String contentType;
+        Buffer body;
+        String eTag = null;
+        long lastModified = -1;
         
-        boolean handled = handleExceptionWithControllerAdvice(ctx, cause, method);
+        if (result instanceof ResponseEntity) {
+            ResponseEntity<?> responseEntity = (ResponseEntity<?>) result;
+            Object entityBody = responseEntity.getBody();
+            status = responseEntity.getStatus();
+            headers = responseEntity.getHeaders();
+            contentType = "application/json";
+            body = entityBody != null ? jsonCodec.encode(entityBody) : null;
+            eTag = responseEntity.getETag();
+            lastModified = responseEntity.getLastModified();
+        } else if (isResponseBody || !isSimpleType(result)) {
+            contentType = "application/json";
+            body = jsonCodec.encode(result);
+        } else {
+            contentType = "text/plain";
+            body = Buffer.buffer(result.toString());
+        }
         
-        if (!handled) {
-            handleDefaultException(ctx, cause);
+        if (eTag == null && computeETag && status == 200 && body != null) {
+            eTag = ConditionalRequests.strongETag(body);
         }
+        return new EncodedResponse(status, headers, contentType, body, eTag, lastModified);
     }
     
-    private boolean handleExceptionWithControllerAdvice(RoutingContext ctx, Throwable exception, Method originalMethod) {
-        for (Object advice : controllerAdvices.values()) {
-            Method exceptionHandler = findExceptionHandler(advice, exception);
-            if (exceptionHandler != null) {
-                try {
-                    Object result = invokeExceptionHandler(advice, exceptionHandler, exception, ctx);
-                    if (result != null) {
-                        handleResponse(result, ctx, originalMethod);
-                        return true;
-                    }
-                } catch (Exception e) {
-                    // Ignore and try next handler
-                }
-            }
-        }
-        return false;
+    private void handleException(RoutingContext ctx, Exception e, RouteDefinition route) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        handleFailure(ctx, cause, route);
     }
     
-    private Method findExceptionHandler(Object advice, Throwable exception) {
-        for (Method method : advice.getClass().getDeclaredMethods()) {
-            if (method.isAnnotationPresent(ExceptionHandler.class)) {
-                ExceptionHandler annotation = method.getAnnotation(ExceptionHandler.class);
-                Class<?>[] parameterTypes = method.getParameterTypes();
-                
-                if (annotation.value().length > 0) {
-                    for (Class<? extends Throwable> handledException : annotation.value()) {
-                        if (handledException.isInstance(exception)) {
-                            return method;
-                        }
-                    }
-                } else if (parameterTypes.length > 0 && parameterTypes[0].isInstance(exception)) {
-                    return method;
-                }
-            }
+    private void handleFailure(RoutingContext ctx, Throwable cause, RouteDefinition route) {
+        beginPhase(ctx, ServerTiming.ERROR);
+        if (metrics != null) {
+            metrics.forRoute(route).recordError();
+        }
+        // Réponse déjà envoyée, par exemple le 413 d'un corps en flux trop gros
+        if (ctx.response().ended()) {
+            return;
+        }
+        // Une réponse d'erreur, même en 200 via un @ControllerAdvice, n'est jamais mise en cache
+        if (route.getResponseCache() != null) {
+            ctx.remove(CACHE_KEY);
+        }
+        boolean handled = handleExceptionWithControllerAdvice(ctx, cause, route);
+        
+        if (!handled) {
+            handleDefaultException(ctx, cause);
         }
-        return null;
     }
     
-    private Object invokeExceptionHandler(Object advice, Method handler, Throwable exception, RoutingContext ctx) throws Exception {
-        Parameter[] parameters = handler.getParameters();
-        Object[] args = new Object[parameters.length];
+    private boolean handleExceptionWithControllerAdvice(RoutingContext ctx, Throwable exception, RouteDefinition route) {
+        ExceptionHandlerRegistry.HandlerMethod handler = exceptionHandlers.resolve(exception.getClass());
+        if (handler == null) {
+            return false;
+        }
         
-        for (int i = 0; i < parameters.length; i++) {
-            Class<?> paramType = parameters[i].getType();
-            
-            if (paramType.isInstance(exception)) {
-                args[i] = exception;
-            } else if (paramType == RoutingContext.class) {
-                args[i] = ctx;
-            } else {
-                args[i] = null;
+        try {
+            Object result = handler.invoke(exception, ctx);
+            if (result != null) {
+                route.getResponseWriter().write(ctx, result);
+                return true;
             }
+        } catch (Exception e) {
+            // Le handler a échoué : réponse par défaut
         }
-        
-        return handler.invoke(advice, args);
+        return false;
     }
     
     private void handleDefaultException(RoutingContext ctx, Throwable exception) {
@@ -330,6 +607,8 @@ public class EasyWebRouter {
         
         if (exception instanceof IllegalArgumentException) {
             statusCode = 400;
+        } else if (exception instanceof PayloadTooLargeException) {
+            statusCode = 413;
         }
         
         Map<String, Object> errorResponse = new HashMap<>();
@@ -342,7 +621,13 @@ public class EasyWebRouter {
         ctx.response()
                 .setStatusCode(statusCode)
                 .putHeader("content-type", "application/json")
-                .end(Json.encodePrettily(errorResponse));
+                .end(jsonCodec.encode(errorResponse));
+    }
+    
+    private void writeMetrics(RoutingContext ctx) {
+        ctx.response()
+                .putHeader("content-type", HttpMetrics.CONTENT_TYPE)
+                .end(metrics.scrape());
     }
     
     private void setupCors(RoutingContext ctx) {
@@ -368,7 +653,7 @@ public class EasyWebRouter {
         ctx.response()
                 .setStatusCode(404)
                 .putHeader("content-type", "application/json")
-                .end(Json.encodePrettily(errorResponse));
+                .end(jsonCodec.encode(errorResponse));
     }
     
     private String getBasePath(Class<?> controllerClass) {
@@ -403,7 +688,28 @@ public class EasyWebRouter {
                 result instanceof Boolean;
     }
     
-    public Router getRouter() {
+    public synchronized Router getRouter() {
+        if (router == null) {
+            router = createRouter(vertx);
+        }
         return router;
     }
+    
+    /**
+     * @return les durées par phase et par route, ou {@code null} sans {@code easy.http.server-timing}
+     */
+    public ServerTiming getServerTiming() {
+        return serverTiming;
+    }
+    
+    /**
+     * @return les mesures par route, ou {@code null} sans {@code easy.metrics.enabled}
+     */
+    public HttpMetrics getMetrics() {
+        return metrics;
+    }
+    
+    public List<RouteDefinition> getRoutes() {
+        return Collections.unmodifiableList(routes);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Réponse entièrement sérialisée : statut, en-têtes, validateurs ({@code ETag}, {@code Last-Modified})
+ * et corps déjà encodé. Immuable, elle peut être écrite plusieurs fois, par plusieurs event loops.
+ * <p>
+ * La variante gzip du corps est calculée à la première demande puis gardée avec la réponse :
+ * une réponse en cache n'est compressée qu'une fois.
+ *
+ * @author mahatoky rasolonirina
+ */
+final class EncodedResponse {
+    private final int status;
+    private final Map<String, String> headers;
+    private final String contentType;
+    private final Buffer body;
+    private final String eTag;
+    private final long lastModified;
+    private volatile Buffer gzipBody;
+    
+    EncodedResponse(int status, Map<String, String> headers, String contentType, Buffer body,
+                    String eTag, long lastModified) {
+        this.status = status;
+        this.headers = headers.isEmpty() ? Collections.emptyMap() : new LinkedHashMap<>(headers);
+        this.contentType = contentType;
+        this.body = body;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+    
+    void writeTo(HttpServerResponse response) {
+        write(response, body, null, false);
+    }
+    
+    /**
+     * @param contentEncoding en-tête {@code Content-Encoding} à poser, ou {@code null}
+     * @param weakETag        {@code true} si le corps peut être compressé en route : l'ETag devient faible
+     */
+    void writeTo(HttpServerResponse response, String contentEncoding, boolean weakETag) {
+        write(response, body, contentEncoding, weakETag);
+    }
+    
+    void writeGzipTo(HttpServerResponse response, int level) {
+        write(response, gzipBody(level), ResponseCompression.GZIP, true);
+    }
+    
+    private void write(HttpServerResponse response, Buffer payload, String contentEncoding, boolean weakETag) {
+        response.setStatusCode(status);
+        writeHeaders(response, weakETag);
+        if (payload == null) {
+            response.end();
+            return;
+        }
+        if (contentEncoding != null) {
+            response.putHeader("Content-Encoding", contentEncoding);
+        }
+        response.putHeader("content-type", contentType).end(payload);
+    }
+    
+    // Calcul concurrent possible mais sans effet : toutes les variantes sont identiques
+    private Buffer gzipBody(int level) {
+        Buffer compressed = gzipBody;
+        if (compressed == null) {
+            compressed = gzip(body, level);
+            gzipBody = compressed;
+        }
+        return compressed;
+    }
+    
+    private static Buffer gzip(Buffer body, int level) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length() / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(body.getBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Buffer.buffer(out.toByteArray());
+    }
+    
+    /**
+     * 304 sans corps : seuls les en-têtes et validateurs sont renvoyés.
+     */
+    void writeNotModified(HttpServerResponse response) {
+        response.setStatusCode(304);
+        writeHeaders(response, false);
+        response.end();
+    }
+    
+    private void writeHeaders(HttpServerResponse response, boolean weakETag) {
+        headers.forEach(response::putHeader);
+        if (eTag != null) {
+            response.putHeader("ETag", weakETag && !eTag.startsWith("W/") ? "W/" + eTag : eTag);
+        }
+        if (lastModified >= 0) {
+            response.putHeader("Last-Modified", ConditionalRequests.httpDate(lastModified));
+        }
+    }
+    
+    int getStatus() { return status; }
+    Buffer getBody() { return body; }
+    String getETag() { return eTag; }
+    long getLastModified() { return lastModified; }
+}
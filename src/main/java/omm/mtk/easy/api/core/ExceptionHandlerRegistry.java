@@ -0,0 +1,104 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.ext.web.RoutingContext;
+import omm.mtk.easy.api.annotation.ExceptionHandler;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table des {@code @ExceptionHandler} des {@code @ControllerAdvice}, construite au démarrage.
+ * <p>
+ * Une exception est associée au handler déclaré pour sa superclasse la plus proche
+ * (la classe elle-même d'abord), et le résultat est mis en cache par classe d'exception :
+ * une rafale d'erreurs ne coûte qu'une lecture de map par requête.
+ * <p>
+ * Deux handlers pour le même type d'exception, dans une même advice ou dans deux advices,
+ * font échouer le démarrage : l'ordre de découverte des classes n'est pas fiable et ne doit
+ * pas décider lequel s'applique.
+ *
+ * @author mahatoky rasolonirina
+ */
+public class ExceptionHandlerRegistry {
+    private static final HandlerMethod NONE = new HandlerMethod(null, null, null);
+    
+    private final Map<Class<?>, HandlerMethod> handlersByType = new HashMap<>();
+    private final Map<Class<?>, HandlerMethod> resolved = new ConcurrentHashMap<>();
+    
+    public void register(Object advice) {
+        for (Method method : advice.getClass().getDeclaredMethods()) {
+            ExceptionHandler annotation = method.getAnnotation(ExceptionHandler.class);
+            if (annotation == null) {
+                continue;
+            }
+            
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            Class<?>[] handledTypes = annotation.value();
+            if (handledTypes.length == 0 && parameterTypes.length > 0 && Throwable.class.isAssignableFrom(parameterTypes[0])) {
+                handledTypes = new Class<?>[]{parameterTypes[0]};
+            }
+            
+            HandlerMethod handler = new HandlerMethod(method, MethodInvoker.compile(advice, method), parameterTypes);
+            for (Class<?> handledType : handledTypes) {
+                HandlerMethod existing = handlersByType.putIfAbsent(handledType, handler);
+                if (existing != null) {
+                    throw new IllegalStateException("Ambiguous @ExceptionHandler for " + handledType.getName() + ": " +
+                            describe(existing.method) + " and " + describe(method));
+                }
+            }
+        }
+    }
+    
+    private static String describe(Method method) {
+        return method.getDeclaringClass().getName() + "." + method.getName();
+    }
+    
+    /**
+     * @return le handler le plus spécifique pour ce type d'exception, ou {@code null}
+     */
+    public HandlerMethod resolve(Class<? extends Throwable> exceptionType) {
+        HandlerMethod handler = resolved.computeIfAbsent(exceptionType, this::findClosest);
+        return handler == NONE ? null : handler;
+    }
+    
+    private HandlerMethod findClosest(Class<?> exceptionType) {
+        for (Class<?> current = exceptionType; current != null; current = current.getSuperclass()) {
+            HandlerMethod handler = handlersByType.get(current);
+            if (handler != null) {
+                return handler;
+            }
+        }
+        return NONE;
+    }
+    
+    public static final class HandlerMethod {
+        private final Method method;
+        private final MethodInvoker invoker;
+        private final Class<?>[] parameterTypes;
+        
+        private HandlerMethod(Method method, MethodInvoker invoker, Class<?>[] parameterTypes) {
+            this.method = method;
+            this.invoker = invoker;
+            this.parameterTypes = parameterTypes;
+        }
+        
+        public Object invoke(Throwable exception, RoutingContext ctx) throws Exception {
+            Object[] args = new Object[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Class<?> paramType = parameterTypes[i];
+                if (paramType.isInstance(exception)) {
+                    args[i] = exception;
+                } else if (paramType == RoutingContext.class) {
+                    args[i] = ctx;
+                }
+            }
+            return invoker.invoke(args);
+        }
+        
+        public Method getMethod() {
+            return method;
+        }
+    }
+}
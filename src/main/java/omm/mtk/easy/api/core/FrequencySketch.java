@@ -0,0 +1,72 @@
+package omm.mtk.easy.api.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Estimation approchée de la fréquence d'accès récente d'une clé (count-min sketch à 4 lignes).
+ * <p>
+ * Les compteurs font 4 bits (plafonnés à 15), seize par {@code long} : 16 compteurs par entrée
+ * attendue tiennent dans {@code 8 × entrées} octets. Tous sont divisés par deux après
+ * {@code 10 × entrées} accès, pour que les clés autrefois populaires perdent leur avantage.
+ *
+ * @author mahatoky rasolonirina
+ */
+final class FrequencySketch {
+    private static final int ROWS = 4;
+    private static final long MAX_COUNT = 15L;
+    private static final long HALF_MASK = 0x7777777777777777L;
+    private static final int[] SEEDS = {0x97cb3127, 0x9e3779b9, 0x85ebca6b, 0xc2b2ae35};
+    
+    private final AtomicLongArray table;
+    private final int rowMask;
+    private final int resetThreshold;
+    private final AtomicInteger additions = new AtomicInteger();
+    
+    FrequencySketch(int expectedEntries) {
+        int entries = Integer.highestOneBit(Math.max(16, expectedEntries - 1) << 1);
+        // 4 lignes de 4 × entries compteurs, soit entries longs
+        this.table = new AtomicLongArray(entries);
+        this.rowMask = 4 * entries - 1;
+        this.resetThreshold = 10 * entries;
+    }
+    
+    void increment(int hash) {
+        for (int row = 0; row < ROWS; row++) {
+            int counter = counterIndex(hash, row);
+            int slot = counter >>> 4;
+            int shift = (counter & 15) << 2;
+            long value;
+            do {
+                value = table.get(slot);
+            } while (((value >>> shift) & MAX_COUNT) < MAX_COUNT && !table.compareAndSet(slot, value, value + (1L << shift)));
+        }
+        if (additions.incrementAndGet() == resetThreshold) {
+            reset();
+        }
+    }
+    
+    int frequency(int hash) {
+        long frequency = MAX_COUNT;
+        for (int row = 0; row < ROWS; row++) {
+            int counter = counterIndex(hash, row);
+            frequency = Math.min(frequency, (table.get(counter >>> 4) >>> ((counter & 15) << 2)) & MAX_COUNT);
+        }
+        return (int) frequency;
+    }
+    
+    private int counterIndex(int hash, int row) {
+        int h = (hash ^ (hash >>> 16)) * SEEDS[row];
+        return row * (rowMask + 1) + ((h ^ (h >>> 15)) & rowMask);
+    }
+    
+    private void reset() {
+        additions.set(0);
+        for (int i = 0; i < table.length(); i++) {
+            long value;
+            do {
+                value = table.get(i);
+            } while (!table.compareAndSet(i, value, (value >>> 1) & HALF_MASK));
+        }
+    }
+}
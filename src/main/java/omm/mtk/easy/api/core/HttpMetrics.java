@@ -0,0 +1,134 @@
+package omm.mtk.easy.api.core;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Mesures de toutes les routes, créées au démarrage (une {@link RouteMetrics} par route, jamais
+ * ajoutée ensuite) et exportées au format texte Prometheus sur {@code easy.metrics.path}.
+ * <p>
+ * Accessible via {@code EasyApi.getContext().getWebRouter().getMetrics()} quand
+ * {@code easy.metrics.enabled=true}.
+ *
+ * @author mahatoky rasolonirina
+ */
+public class HttpMetrics {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    
+    private final Map<RouteDefinition, RouteMetrics> byRoute = new IdentityHashMap<>();
+    // Durées par phase, exportées aussi quand easy.http.server-timing est actif
+    private final ServerTiming serverTiming;
+    
+    HttpMetrics(List<RouteDefinition> routes, ServerTiming serverTiming) {
+        for (RouteDefinition route : routes) {
+            byRoute.put(route, new RouteMetrics(route.getHttpMethod().name(), route.getPath()));
+        }
+        this.serverTiming = serverTiming;
+    }
+    
+    RouteMetrics forRoute(RouteDefinition route) {
+        return byRoute.get(route);
+    }
+    
+    public Collection<RouteMetrics> getRoutes() {
+        return Collections.unmodifiableCollection(byRoute.values());
+    }
+    
+    /**
+     * @return toutes les mesures au format d'exposition texte Prometheus 0.0.4
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        
+        out.append("# HELP easy_http_server_requests_total Completed HTTP requests.\n")
+                .append("# TYPE easy_http_server_requests_total counter\n");
+        for (RouteMetrics metrics : byRoute.values()) {
+            for (int status = 0; status < 600; status++) {
+                long count = metrics.getRequests(status);
+                if (count > 0) {
+                    labels(out.append("easy_http_server_requests_total"), metrics)
+                            .append(",status=\"").append(status).append("\"} ").append(count).append('\n');
+                }
+            }
+        }
+        
+        out.append("# HELP easy_http_server_errors_total Exceptions raised by route handlers.\n")
+                .append("# TYPE easy_http_server_errors_total counter\n");
+        for (RouteMetrics metrics : byRoute.values()) {
+            labels(out.append("easy_http_server_errors_total"), metrics).append("} ").append(metrics.getErrors()).append('\n');
+        }
+        
+        out.append("# HELP easy_http_server_requests_in_flight HTTP requests being processed.\n")
+                .append("# TYPE easy_http_server_requests_in_flight gauge\n");
+        for (RouteMetrics metrics : byRoute.values()) {
+            labels(out.append("easy_http_server_requests_in_flight"), metrics).append("} ").append(metrics.getInFlight()).append('\n');
+        }
+        
+        out.append("# HELP easy_http_server_request_duration_seconds HTTP request duration.\n")
+                .append("# TYPE easy_http_server_request_duration_seconds histogram\n");
+        for (RouteMetrics metrics : byRoute.values()) {
+            writeHistogram(out, metrics);
+        }
+        
+        if (serverTiming != null) {
+            writePhases(out);
+        }
+        return out.toString();
+    }
+    
+    private void writePhases(StringBuilder out) {
+        out.append("# HELP easy_http_server_phase_seconds Time spent in each request phase.\n")
+                .append("# TYPE easy_http_server_phase_seconds summary\n");
+        for (Map.Entry<RouteDefinition, RouteMetrics> route : byRoute.entrySet()) {
+            ServerTiming.PhaseStats stats = serverTiming.forRoute(route.getKey());
+            for (String phase : ServerTiming.PHASES) {
+                labels(out.append("easy_http_server_phase_seconds_sum"), route.getValue())
+                        .append(",phase=\"").append(phase).append("\"} ").append(seconds(stats.getTotalNanos(phase))).append('\n');
+                labels(out.append("easy_http_server_phase_seconds_count"), route.getValue())
+                        .append(",phase=\"").append(phase).append("\"} ").append(stats.getCount(phase)).append('\n');
+            }
+        }
+    }
+    
+    private void writeHistogram(StringBuilder out, RouteMetrics metrics) {
+        long cumulative = 0;
+        for (int i = 0; i <= RouteMetrics.BUCKET_BOUNDS_NANOS.length; i++) {
+            cumulative += metrics.getBucket(i);
+            String bound = i < RouteMetrics.BUCKET_BOUNDS_NANOS.length ?
+                    seconds(RouteMetrics.BUCKET_BOUNDS_NANOS[i]) : "+Inf";
+            labels(out.append("easy_http_server_request_duration_seconds_bucket"), metrics)
+                    .append(",le=\"").append(bound).append("\"} ").append(cumulative).append('\n');
+        }
+        labels(out.append("easy_http_server_request_duration_seconds_sum"), metrics)
+                .append("} ").append(seconds(metrics.getDurationNanos())).append('\n');
+        labels(out.append("easy_http_server_request_duration_seconds_count"), metrics)
+                .append("} ").append(cumulative).append('\n');
+    }
+    
+    private static StringBuilder labels(StringBuilder out, RouteMetrics metrics) {
+        out.append("{method=\"").append(metrics.getMethod()).append("\",route=\"");
+        escape(out, metrics.getPath());
+        return out.append('"');
+    }
+    
+    private static void escape(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+    
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.6f", nanos / 1_000_000_000.0).replaceAll("0+$", "").replaceAll("\\.$", ".0");
+    }
+}
@@ -0,0 +1,18 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Sérialiseur JSON utilisé par le routeur pour les corps de requête et de réponse.
+ * <p>
+ * Une application peut fournir sa propre implémentation en la déclarant comme bean
+ * ({@code @Component}) ; sinon {@link VertxJsonCodec} est utilisé.
+ *
+ * @author mahatoky rasolonirina
+ */
+public interface JsonCodec {
+    
+    Buffer encode(Object value);
+    
+    <T> T decode(Buffer body, Class<T> type);
+}
@@ -0,0 +1,234 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.Iterator;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Écrit un {@link Stream}, un {@link Iterator} ou un {@link ReadStream} en réponse chunked,
+ * sous forme de tableau JSON ou de NDJSON si le client accepte {@code application/x-ndjson}.
+ * <p>
+ * Les éléments sont encodés par paquets d'environ {@value #CHUNK_SIZE} octets et l'écriture
+ * s'arrête dès que {@code writeQueueFull()} est vrai, pour reprendre sur le drain : la mémoire
+ * reste constante quel que soit le nombre d'éléments ou la lenteur du client.
+ * Pour une route {@code @Blocking}, les éléments sont lus sur le pool de la route.
+ *
+ * @author mahatoky rasolonirina
+ */
+public class JsonStreamWriter {
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final String NDJSON = "application/x-ndjson";
+    private static final EasyLogger log = EasyLogger.getLogger(JsonStreamWriter.class);
+    
+    private final JsonCodec jsonCodec;
+    
+    public JsonStreamWriter(JsonCodec jsonCodec) {
+        this.jsonCodec = jsonCodec;
+    }
+    
+    public static boolean isStreamable(Object result) {
+        return result instanceof Stream || result instanceof Iterator || result instanceof ReadStream;
+    }
+    
+    public void write(RoutingContext ctx, Object source, WorkerPool fetchPool) {
+        String accept = ctx.request().getHeader("accept");
+        boolean ndjson = accept != null && (accept.contains(NDJSON) || accept.contains("application/ndjson"));
+        
+        ctx.response()
+                .setChunked(true)
+                .putHeader("content-type", ndjson ? NDJSON : "application/json");
+        
+        if (source instanceof ReadStream) {
+            new ReadStreamPump(ctx.response(), (ReadStream<?>) source, ndjson).start();
+        } else {
+            Iterator<?> iterator = source instanceof Stream ? ((Stream<?>) source).iterator() : (Iterator<?>) source;
+            new IteratorPump(ctx.response(), iterator, source, ndjson, fetchPool).start();
+        }
+    }
+    
+    private void appendElement(Buffer chunk, Object element, boolean ndjson, boolean first) {
+        if (ndjson) {
+            chunk.appendBuffer(jsonCodec.encode(element)).appendString("\n");
+        } else {
+            if (!first) {
+                chunk.appendString(",");
+            }
+            chunk.appendBuffer(jsonCodec.encode(element));
+        }
+    }
+    
+    private static void abort(HttpServerResponse response, Throwable failure) {
+        log.warn("Streaming response aborted: {}", failure.getMessage());
+        if (!response.headWritten()) {
+            response.setChunked(false).setStatusCode(500).end();
+        } else if (!response.closed()) {
+            response.close();
+        }
+    }
+    
+    private static void closeQuietly(Object source) {
+        if (source instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) source).close();
+            } catch (Exception e) {
+                // Ignorer : la réponse est déjà terminée
+            }
+        }
+    }
+    
+    private class IteratorPump {
+        private final HttpServerResponse response;
+        private final Iterator<?> iterator;
+        private final Object source;
+        private final boolean ndjson;
+        private final WorkerPool fetchPool;
+        private final Context eventLoop = Vertx.currentContext();
+        private boolean started;
+        private boolean done;
+        private volatile boolean closed;
+        
+        IteratorPump(HttpServerResponse response, Iterator<?> iterator, Object source, boolean ndjson, WorkerPool fetchPool) {
+            this.response = response;
+            this.iterator = iterator;
+            this.source = source;
+            this.ndjson = ndjson;
+            this.fetchPool = fetchPool;
+        }
+        
+        void start() {
+            response.closeHandler(v -> {
+                closed = true;
+                closeQuietly(source);
+            });
+            pump();
+        }
+        
+        private void pump() {
+            try {
+                while (!closed) {
+                    if (response.writeQueueFull()) {
+                        response.drainHandler(v -> pump());
+                        return;
+                    }
+                    if (fetchPool != null) {
+                        fetchAsync();
+                        return;
+                    }
+                    if (!writeChunk(nextChunk())) {
+                        return;
+                    }
+                }
+            } catch (Exception e) {
+                fail(e);
+            }
+        }
+        
+        private void fetchAsync() {
+            boolean accepted = fetchPool.submit(() -> {
+                try {
+                    Buffer chunk = nextChunk();
+                    eventLoop.runOnContext(v -> {
+                        if (writeChunk(chunk)) {
+                            pump();
+                        }
+                    });
+                } catch (Exception e) {
+                    eventLoop.runOnContext(v -> fail(e));
+                }
+            });
+            if (!accepted) {
+                fail(new RejectedExecutionException("Worker pool '" + fetchPool.getName() + "' is saturated"));
+            }
+        }
+        
+        /**
+         * @return le paquet suivant, ou {@code null} quand tout a été écrit
+         */
+        private Buffer nextChunk() {
+            if (done) {
+                return null;
+            }
+            Buffer chunk = Buffer.buffer(CHUNK_SIZE);
+            if (!started && !ndjson) {
+                chunk.appendString("[");
+            }
+            while (chunk.length() < CHUNK_SIZE && iterator.hasNext()) {
+                appendElement(chunk, iterator.next(), ndjson, !started);
+                started = true;
+            }
+            if (!iterator.hasNext()) {
+                if (!ndjson) {
+                    chunk.appendString("]");
+                }
+                done = true;
+            }
+            started = true;
+            return chunk;
+        }
+        
+        private boolean writeChunk(Buffer chunk) {
+            if (closed) {
+                return false;
+            }
+            if (chunk == null) {
+                response.end();
+                closeQuietly(source);
+                return false;
+            }
+            response.write(chunk);
+            return true;
+        }
+        
+        private void fail(Throwable failure) {
+            closeQuietly(source);
+            abort(response, failure);
+        }
+    }
+    
+    private class ReadStreamPump {
+        private final HttpServerResponse response;
+        private final ReadStream<?> source;
+        private final boolean ndjson;
+        private boolean first = true;
+        
+        ReadStreamPump(HttpServerResponse response, ReadStream<?> source, boolean ndjson) {
+            this.response = response;
+            this.source = source;
+            this.ndjson = ndjson;
+        }
+        
+        @SuppressWarnings("unchecked")
+        void start() {
+            ReadStream<Object> stream = (ReadStream<Object>) source;
+            response.closeHandler(v -> stream.pause());
+            stream.exceptionHandler(failure -> abort(response, failure));
+            stream.endHandler(v -> {
+                Buffer tail = Buffer.buffer();
+                if (!ndjson) {
+                    tail.appendString(first ? "[]" : "]");
+                }
+                response.end(tail);
+            });
+            stream.handler(element -> {
+                Buffer chunk = Buffer.buffer();
+                if (first && !ndjson) {
+                    chunk.appendString("[");
+                }
+                appendElement(chunk, element, ndjson, first);
+                first = false;
+                response.write(chunk);
+                if (response.writeQueueFull()) {
+                    stream.pause();
+                    response.drainHandler(drained -> stream.resume());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package omm.mtk.easy.api.core;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+/**
+ * Référence vers un bean résolu au premier accès, puis mémorisée.
+ * <p>
+ * Injectée telle quelle pour un point d'injection {@code Supplier<T>}, ou derrière un
+ * {@link Proxy} de l'interface demandée. La résolution est faite une seule fois,
+ * même si plusieurs threads y accèdent en même temps.
+ *
+ * @author mahatoky rasolonirina
+ */
+final class LazyReference implements Supplier<Object>, InvocationHandler {
+    private final String beanName;
+    private final Supplier<Object> resolver;
+    private volatile Object target;
+    
+    LazyReference(String beanName, Supplier<Object> resolver) {
+        this.beanName = beanName;
+        this.resolver = resolver;
+    }
+    
+    static Object proxy(Class<?> type, LazyReference reference) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, reference);
+    }
+    
+    @Override
+    public Object get() {
+        Object resolved = target;
+        if (resolved == null) {
+            synchronized (this) {
+                resolved = target;
+                if (resolved == null) {
+                    resolved = resolver.get();
+                    target = resolved;
+                }
+            }
+        }
+        return resolved;
+    }
+    
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "LazyProxy[" + beanName + "]";
+                default:
+                    break;
+            }
+        }
+        try {
+            return method.invoke(get(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package omm.mtk.easy.api.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * Appel direct d'une méthode de bean, compilé une seule fois à l'enregistrement.
+ * <p>
+ * Remplace {@link Method#invoke} sur le chemin chaud : le {@link MethodHandle} est lié
+ * à l'instance cible et adapté en {@code (Object[]) -> Object}, ce qui évite les
+ * contrôles d'accès par appel et permet au JIT d'inliner la méthode cible.
+ * Comme avec la réflexion classique, des arguments incompatibles (nombre, type, {@code null} pour un
+ * type primitif) lèvent une {@link IllegalArgumentException}, vérifiée avant l'appel, et seules les
+ * exceptions levées par la méthode elle-même sont enveloppées dans une {@link InvocationTargetException}.
+ *
+ * @author mahatoky rasolonirina
+ */
+@FunctionalInterface
+public interface MethodInvoker {
+    
+    Object invoke(Object[] args) throws Exception;
+    
+    static MethodInvoker compile(Object target, Method method) {
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                handle = handle.bindTo(target);
+            }
+            MethodHandle invoker = handle
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            // Type attendu de chaque argument (wrapper pour un primitif), null si tout convient
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            Class<?>[] argumentTypes = new Class<?>[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Class<?> type = parameterTypes[i];
+                argumentTypes[i] = type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() :
+                        type == Object.class ? null : type;
+            }
+            
+            return args -> {
+                int count = args == null ? 0 : args.length;
+                if (count != argumentTypes.length) {
+                    throw new IllegalArgumentException("Wrong number of arguments for " + method.getName() +
+                            ": expected " + argumentTypes.length + ", got " + count);
+                }
+                for (int i = 0; i < count; i++) {
+                    Object arg = args[i];
+                    boolean valid = arg == null ? !parameterTypes[i].isPrimitive() :
+                            argumentTypes[i] == null || argumentTypes[i].isInstance(arg);
+                    if (!valid) {
+                        throw new IllegalArgumentException("Argument " + i + " of " + method.getName() + " must be " +
+                                parameterTypes[i].getName() + ", got " + (arg == null ? "null" : arg.getClass().getName()));
+                    }
+                }
+                try {
+                    return invoker.invokeExact(args);
+                } catch (Throwable t) {
+                    throw new InvocationTargetException(t);
+                }
+            };
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new RuntimeException("Failed to compile invoker for: " +
+                    method.getDeclaringClass().getName() + "." + method.getName(), e);
+        }
+    }
+    
+    /**
+     * Invoker d'un bean créé au premier appel : la cible est résolue et l'invoker compilé
+     * une seule fois, les appels suivants passent directement par l'invoker compilé.
+     */
+    static MethodInvoker lazy(Supplier<Object> target, Method method) {
+        return new MethodInvoker() {
+            private volatile MethodInvoker delegate;
+            
+            @Override
+            public Object invoke(Object[] args) throws Exception {
+                MethodInvoker invoker = delegate;
+                if (invoker == null) {
+                    synchronized (this) {
+                        invoker = delegate;
+                        if (invoker == null) {
+                            invoker = compile(target.get(), method);
+                            delegate = invoker;
+                        }
+                    }
+                }
+                return invoker.invoke(args);
+            }
+        };
+    }
+}
@@ -0,0 +1,264 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.RoutingContext;
+import omm.mtk.easy.api.annotation.PathVariable;
+import omm.mtk.easy.api.annotation.RequestBody;
+import omm.mtk.easy.api.annotation.RequestHeader;
+import omm.mtk.easy.api.annotation.RequestParam;
+import omm.mtk.easy.api.annotation.Scope;
+
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Construit, à l'enregistrement d'une route, un {@link ParameterResolver} par paramètre.
+ * Toute la lecture d'annotations et le choix des convertisseurs se font ici, une seule fois.
+ * <p>
+ * Un paramètre dont le type est un bean {@code prototype} reçoit une nouvelle instance par requête ;
+ * un bean {@code pooled} est prêté par son pool et lui est rendu à la fin de la réponse.
+ *
+ * @author mahatoky rasolonirina
+ */
+public class ParameterBinder {
+    private final JsonCodec jsonCodec;
+    private final long defaultBodyLimit;
+    private final EasyApplicationContext context;
+    // Réponse immédiate quand un corps lu en InputStream dépasse la limite en cours de lecture
+    private final BiConsumer<RoutingContext, PayloadTooLargeException> payloadTooLargeHandler;
+    
+    public ParameterBinder(JsonCodec jsonCodec, long defaultBodyLimit) {
+        this(jsonCodec, defaultBodyLimit, null);
+    }
+    
+    public ParameterBinder(JsonCodec jsonCodec, long defaultBodyLimit, EasyApplicationContext context) {
+        this(jsonCodec, defaultBodyLimit, context, (ctx, e) -> ctx.request().connection().close());
+    }
+    
+    public ParameterBinder(JsonCodec jsonCodec, long defaultBodyLimit, EasyApplicationContext context,
+                           BiConsumer<RoutingContext, PayloadTooLargeException> payloadTooLargeHandler) {
+        this.jsonCodec = jsonCodec;
+        this.defaultBodyLimit = defaultBodyLimit;
+        this.context = context;
+        this.payloadTooLargeHandler = payloadTooLargeHandler;
+    }
+    
+    public ParameterResolver[] bind(Method method) {
+        Parameter[] parameters = method.getParameters();
+        ParameterResolver[] resolvers = new ParameterResolver[parameters.length];
+        
+        for (int i = 0; i < parameters.length; i++) {
+            resolvers[i] = createResolver(parameters[i]);
+        }
+        
+        return resolvers;
+    }
+    
+    /**
+     * Indique comment le corps doit être lu pour cette méthode : mis en mémoire pour un
+     * {@code @RequestBody} classique ou un formulaire lu par {@code @RequestParam},
+     * en flux pour un {@code @RequestBody} de type {@link InputStream} ou {@link ReadStream}.
+     */
+    public RouteDefinition.BodyMode bodyMode(Method method, HttpMethod httpMethod) {
+        boolean formParams = false;
+        for (Parameter param : method.getParameters()) {
+            if (param.isAnnotationPresent(RequestBody.class)) {
+                return isStreamingBody(param.getType()) ?
+                        RouteDefinition.BodyMode.STREAMING : RouteDefinition.BodyMode.BUFFERED;
+            }
+            formParams |= param.isAnnotationPresent(RequestParam.class);
+        }
+        boolean hasBody = httpMethod == HttpMethod.POST || httpMethod == HttpMethod.PUT || httpMethod == HttpMethod.PATCH;
+        return formParams && hasBody ? RouteDefinition.BodyMode.BUFFERED : RouteDefinition.BodyMode.NONE;
+    }
+    
+    public long bodyLimit(Method method) {
+        for (Parameter param : method.getParameters()) {
+            RequestBody annotation = param.getAnnotation(RequestBody.class);
+            if (annotation != null && annotation.maxSize() >= 0) {
+                return annotation.maxSize();
+            }
+        }
+        return defaultBodyLimit;
+    }
+    
+    /**
+     * Un {@link InputStream} bloque le thread qui le lit : la route doit être {@code @Blocking}.
+     */
+    public boolean readsBodyAsInputStream(Method method) {
+        for (Parameter param : method.getParameters()) {
+            if (param.isAnnotationPresent(RequestBody.class) && param.getType() == InputStream.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean isStreamingBody(Class<?> paramType) {
+        return paramType == InputStream.class || paramType == ReadStream.class;
+    }
+    
+    private ParameterResolver createResolver(Parameter param) {
+        Class<?> paramType = param.getType();
+        
+        if (param.isAnnotationPresent(RequestBody.class)) {
+            if (paramType == InputStream.class) {
+                long maxSize = bodyLimit((Method) param.getDeclaringExecutable());
+                return ctx -> new RequestBodyInputStream(ctx.request(), maxSize,
+                        e -> payloadTooLargeHandler.accept(ctx, e));
+            }
+            if (paramType == ReadStream.class) {
+                return RoutingContext::request;
+            }
+            return requestBodyResolver(paramType);
+        }
+        
+        if (param.isAnnotationPresent(RequestParam.class)) {
+            return requestParamResolver(param);
+        }
+        
+        if (param.isAnnotationPresent(PathVariable.class)) {
+            return pathVariableResolver(param);
+        }
+        
+        if (param.isAnnotationPresent(RequestHeader.class)) {
+            return requestHeaderResolver(param);
+        }
+        
+        if (paramType == RoutingContext.class) {
+            return ctx -> ctx;
+        }
+        
+        String scope = isBeanType(paramType) ? context.getBeanScope(paramType) : null;
+        if (Scope.POOLED.equals(scope)) {
+            return pooledBeanResolver(paramType);
+        }
+        if (Scope.PROTOTYPE.equals(scope)) {
+            return ctx -> context.getBean(paramType);
+        }
+        
+        Object defaultValue = getDefaultValue(paramType);
+        return ctx -> defaultValue;
+    }
+    
+    /**
+     * Seul un type applicatif peut désigner un bean {@code prototype} ou {@code pooled} : un type du JDK
+     * ({@code Object}, {@code Map}, {@code Serializable}...) garde la valeur par défaut, même si un seul
+     * bean l'implémente. Un type ambigu ne désigne aucun bean ({@link EasyApplicationContext#getBeanScope}).
+     */
+    private boolean isBeanType(Class<?> paramType) {
+        return context != null && !paramType.isPrimitive() && !paramType.isArray() &&
+                !paramType.getName().startsWith("java.");
+    }
+    
+    private ParameterResolver pooledBeanResolver(Class<?> paramType) {
+        return ctx -> {
+            BeanLease<?> lease = context.leaseBean(paramType);
+            ctx.addBodyEndHandler(v -> lease.close());
+            return lease.get();
+        };
+    }
+    
+    private ParameterResolver requestBodyResolver(Class<?> paramType) {
+        boolean raw = paramType == String.class;
+        return ctx -> {
+            Buffer body = ctx.getBody();
+            if (body == null || isBlank(body)) {
+                return null;
+            }
+            try {
+                return raw ? body.toString() : jsonCodec.decode(body, paramType);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to parse request body", e);
+            }
+        };
+    }
+    
+    private boolean isBlank(Buffer body) {
+        for (int i = 0; i < body.length(); i++) {
+            if (body.getByte(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private ParameterResolver requestParamResolver(Parameter param) {
+        RequestParam annotation = param.getAnnotation(RequestParam.class);
+        String paramName = annotation.value().isEmpty() ? param.getName() : annotation.value();
+        Function<String, Object> converter = converterFor(param.getType());
+        boolean required = annotation.required() && annotation.defaultValue().isEmpty();
+        Object defaultValue = annotation.defaultValue().isEmpty() ?
+                getDefaultValue(param.getType()) : converter.apply(annotation.defaultValue());
+        
+        return ctx -> {
+            String paramValue = ctx.request().getParam(paramName);
+            if (paramValue == null) {
+                if (required) {
+                    throw new RuntimeException("Required parameter '" + paramName + "' is missing");
+                }
+                return defaultValue;
+            }
+            return converter.apply(paramValue);
+        };
+    }
+    
+    private ParameterResolver pathVariableResolver(Parameter param) {
+        PathVariable annotation = param.getAnnotation(PathVariable.class);
+        String pathVarName = annotation.value().isEmpty() ? param.getName() : annotation.value();
+        Function<String, Object> converter = converterFor(param.getType());
+        
+        return ctx -> {
+            String pathVarValue = ctx.pathParam(pathVarName);
+            if (pathVarValue == null) {
+                throw new RuntimeException("Path variable '" + pathVarName + "' not found");
+            }
+            return converter.apply(pathVarValue);
+        };
+    }
+    
+    private ParameterResolver requestHeaderResolver(Parameter param) {
+        RequestHeader annotation = param.getAnnotation(RequestHeader.class);
+        String headerName = annotation.value().isEmpty() ? param.getName() : annotation.value();
+        Function<String, Object> converter = converterFor(param.getType());
+        Object defaultValue = getDefaultValue(param.getType());
+        
+        return ctx -> {
+            String headerValue = ctx.request().getHeader(headerName);
+            return headerValue == null ? defaultValue : converter.apply(headerValue);
+        };
+    }
+    
+    private Function<String, Object> converterFor(Class<?> targetType) {
+        if (targetType == String.class) {
+            return value -> value;
+        } else if (targetType == int.class || targetType == Integer.class) {
+            return Integer::parseInt;
+        } else if (targetType == long.class || targetType == Long.class) {
+            return Long::parseLong;
+        } else if (targetType == boolean.class || targetType == Boolean.class) {
+            return Boolean::parseBoolean;
+        } else if (targetType == double.class || targetType == Double.class) {
+            return Double::parseDouble;
+        } else if (targetType == float.class || targetType == Float.class) {
+            return Float::parseFloat;
+        }
+        return value -> {
+            throw new RuntimeException("Unsupported parameter type: " + targetType.getName());
+        };
+    }
+    
+    private Object getDefaultValue(Class<?> type) {
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == boolean.class) return false;
+        if (type == double.class) return 0.0;
+        if (type == float.class) return 0.0f;
+        return null;
+    }
+}
@@ -0,0 +1,14 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Résout la valeur d'un paramètre de méthode de contrôleur à partir de la requête.
+ * Construit une seule fois par paramètre, avec nom, conversion et valeur par défaut déjà figés.
+ *
+ * @author mahatoky rasolonirina
+ */
+@FunctionalInterface
+public interface ParameterResolver {
+    Object resolve(RoutingContext ctx);
+}
@@ -0,0 +1,14 @@
+package omm.mtk.easy.api.core;
+
+import java.io.IOException;
+
+/**
+ * Corps de requête plus grand que la limite de la route ; renvoyé en 413.
+ *
+ * @author mahatoky rasolonirina
+ */
+public class PayloadTooLargeException extends IOException {
+    public PayloadTooLargeException(long maxSize) {
+        super("Request body exceeds " + maxSize + " bytes");
+    }
+}
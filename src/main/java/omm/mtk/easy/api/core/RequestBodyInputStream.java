@@ -0,0 +1,157 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Corps de requête lu au fil de l'eau par une route {@code @Blocking}.
+ * <p>
+ * Les buffers reçus sur l'event loop sont empilés dans une file ; la requête est mise
+ * en pause au-delà de {@value #HIGH_WATER_MARK} octets en attente et reprise quand le
+ * worker a consommé la moitié, pour ne jamais charger tout le corps en mémoire.
+ * <p>
+ * Pause et reprise ne sont décidées que sur l'event loop : le worker se contente de l'y
+ * réveiller quand il a vidé la file. Au-delà de la taille maximale, la lecture s'arrête,
+ * le worker reçoit une {@link PayloadTooLargeException} et {@code limitHandler} répond
+ * aussitôt (413 du routeur, sinon fermeture de la connexion) pour ne pas garder la connexion
+ * sur une requête en pause.
+ *
+ * @author mahatoky rasolonirina
+ */
+public class RequestBodyInputStream extends InputStream {
+    private static final int HIGH_WATER_MARK = 256 * 1024;
+    private static final Object END = new Object();
+    
+    private final HttpServerRequest request;
+    private final Context eventLoop;
+    private final LinkedBlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    // Écrit uniquement sur l'event loop, lu par le worker pour savoir s'il doit le réveiller
+    private volatile boolean paused;
+    private long received;
+    // Limite dépassée : les buffers encore en vol sont ignorés (event loop uniquement)
+    private boolean finishedReading;
+    private Buffer current;
+    private int position;
+    private boolean finished;
+    
+    public RequestBodyInputStream(HttpServerRequest request, long maxSize) {
+        this(request, maxSize, e -> request.connection().close());
+    }
+    
+    public RequestBodyInputStream(HttpServerRequest request, long maxSize,
+                                  Handler<PayloadTooLargeException> limitHandler) {
+        this(request, maxSize, limitHandler, Vertx.currentContext());
+    }
+    
+    RequestBodyInputStream(HttpServerRequest request, long maxSize, Handler<PayloadTooLargeException> limitHandler,
+                           Context eventLoop) {
+        this.request = request;
+        this.eventLoop = eventLoop;
+        request.exceptionHandler(queue::add);
+        request.endHandler(v -> queue.add(END));
+        request.handler(buffer -> {
+            if (finishedReading) {
+                return;
+            }
+            received += buffer.length();
+            if (maxSize >= 0 && received > maxSize) {
+                finishedReading = true;
+                request.pause();
+                PayloadTooLargeException exception = new PayloadTooLargeException(maxSize);
+                queue.add(exception);
+                limitHandler.handle(exception);
+                return;
+            }
+            queue.add(buffer);
+            if (pending.addAndGet(buffer.length()) > HIGH_WATER_MARK && !paused) {
+                paused = true;
+                request.pause();
+                // Le worker a pu vider la file avant de voir paused : il ne réveillerait alors personne
+                resumeIfDrained();
+            }
+        });
+    }
+    
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        return current.getByte(position++) & 0xFF;
+    }
+    
+    @Override
+    public int read(byte[] target, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length() - position);
+        current.getBytes(position, position + count, target, offset);
+        position += count;
+        return count;
+    }
+    
+    private boolean ensureData() throws IOException {
+        while (current == null || position >= current.length()) {
+            if (finished) {
+                return false;
+            }
+            if (current != null) {
+                release(current.length());
+                current = null;
+            }
+            Object next;
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading request body", e);
+            }
+            if (next == END) {
+                finished = true;
+                return false;
+            }
+            if (next instanceof IOException) {
+                finished = true;
+                throw (IOException) next;
+            }
+            if (next instanceof Throwable) {
+                finished = true;
+                throw new IOException("Failed to read request body", (Throwable) next);
+            }
+            current = (Buffer) next;
+            position = 0;
+        }
+        return true;
+    }
+    
+    /**
+     * Côté worker : {@code pending} est décrémenté avant de lire {@code paused}, et l'event loop
+     * écrit {@code paused} avant de relire {@code pending} ; l'un des deux voit donc toujours
+     * la file vidée et la reprise ne peut pas être perdue.
+     */
+    private void release(int length) {
+        if (pending.addAndGet(-length) < HIGH_WATER_MARK / 2 && paused) {
+            eventLoop.runOnContext(v -> resumeIfDrained());
+        }
+    }
+    
+    private void resumeIfDrained() {
+        if (paused && !finishedReading && pending.get() < HIGH_WATER_MARK / 2) {
+            paused = false;
+            request.resume();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache des réponses encodées d'une ou plusieurs routes {@code @Cacheable}.
+ * <p>
+ * Chaque entrée expire après le TTL. Une fois {@code maxEntries} atteint, une nouvelle réponse
+ * n'est admise que si sa clé est demandée plus souvent qu'une victime choisie parmi un
+ * échantillon d'entrées (admission TinyLFU, fréquences estimées par un {@link FrequencySketch}) :
+ * les requêtes vues une seule fois ne chassent pas les réponses populaires.
+ * <p>
+ * Les lectures se font sans verrou dans la map. Les écritures (ajout, retrait, invalidation) sont
+ * sérialisées et tiennent aussi un tableau compact des entrées, où l'échantillon est tiré au hasard
+ * en temps constant quelle que soit la taille du cache.
+ * <p>
+ * Une réponse calculée avant une invalidation n'est pas mise en cache : le {@link Ticket} pris
+ * avant l'appel du contrôleur porte la génération du cache, incrémentée à chaque invalidation.
+ *
+ * @author mahatoky rasolonirina
+ */
+public final class ResponseCache {
+    private static final int SAMPLE_SIZE = 8;
+    private static final char SEPARATOR = '\u0000';
+    
+    private final String name;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final String[] params;
+    private final String[] headers;
+    private final boolean precompress;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // entries.values() en tableau compact, pour l'échantillonnage ; protégé par le verrou du cache
+    private final Entry[] slots;
+    private int used;
+    private final AtomicLong generation = new AtomicLong();
+    private final FrequencySketch sketch;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    
+    ResponseCache(String name, long ttlSeconds, int maxEntries, String[] params, String[] headers, boolean precompress) {
+        this.name = name;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.params = params;
+        this.headers = headers;
+        this.precompress = precompress;
+        this.sketch = new FrequencySketch(maxEntries);
+        this.slots = new Entry[maxEntries];
+    }
+    
+    /**
+     * Chemin de la requête, puis valeurs des paramètres et en-têtes retenus, dans l'ordre déclaré.
+     */
+    String key(RoutingContext ctx) {
+        StringBuilder key = new StringBuilder(ctx.request().path()).append(SEPARATOR);
+        for (String param : params) {
+            key.append(param).append('=').append(nullToEmpty(ctx.request().getParam(param))).append(SEPARATOR);
+        }
+        for (String header : headers) {
+            key.append(header).append(':').append(nullToEmpty(ctx.request().getHeader(header))).append(SEPARATOR);
+        }
+        return key.toString();
+    }
+    
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+    
+    EncodedResponse get(String key) {
+        sketch.increment(key.hashCode());
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.response;
+            }
+            synchronized (this) {
+                remove(entry);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+    
+    /**
+     * À prendre avant d'appeler le contrôleur, sur un défaut de cache.
+     */
+    Ticket ticket(String key) {
+        return new Ticket(key, generation.get());
+    }
+    
+    /**
+     * Sans effet si le cache a été invalidé depuis la prise du ticket : la réponse peut précéder l'écriture
+     * qui a causé l'invalidation.
+     */
+    synchronized void put(Ticket ticket, EncodedResponse response) {
+        if (ticket.generation != generation.get()) {
+            return;
+        }
+        Entry previous = entries.get(ticket.key);
+        if (previous == null && used >= maxEntries && !evictFor(ticket.key)) {
+            rejections.increment();
+            return;
+        }
+        Entry entry = new Entry(ticket.key, response, System.nanoTime() + ttlNanos);
+        if (previous != null) {
+            entry.slot = previous.slot;
+        } else {
+            entry.slot = used++;
+        }
+        slots[entry.slot] = entry;
+        entries.put(ticket.key, entry);
+    }
+    
+    /**
+     * Retire la victime la moins fréquente d'un échantillon tiré au hasard (ou une entrée expirée),
+     * si la nouvelle clé est plus fréquente qu'elle.
+     */
+    private boolean evictFor(String key) {
+        if (used == 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Entry victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            Entry candidate = slots[random.nextInt(used)];
+            if (candidate.expiresAt - now <= 0) {
+                victim = candidate;
+                victimFrequency = -1;
+                break;
+            }
+            int frequency = sketch.frequency(candidate.key.hashCode());
+            if (frequency < victimFrequency) {
+                victim = candidate;
+                victimFrequency = frequency;
+            }
+        }
+        
+        if (victim == null || sketch.frequency(key.hashCode()) <= victimFrequency) {
+            return false;
+        }
+        remove(victim);
+        evictions.increment();
+        return true;
+    }
+    
+    /**
+     * La dernière entrée du tableau prend la place libérée. Appelé sous le verrou du cache.
+     */
+    private void remove(Entry entry) {
+        if (!entries.remove(entry.key, entry)) {
+            return;
+        }
+        Entry last = slots[--used];
+        slots[entry.slot] = last;
+        last.slot = entry.slot;
+        slots[used] = null;
+    }
+    
+    /**
+     * Retire les réponses de ce chemin exact, quels que soient les paramètres et en-têtes de la clé.
+     */
+    public synchronized void invalidate(String path) {
+        generation.incrementAndGet();
+        String prefix = path + SEPARATOR;
+        for (int i = used - 1; i >= 0; i--) {
+            if (slots[i].key.startsWith(prefix)) {
+                remove(slots[i]);
+            }
+        }
+    }
+    
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        Arrays.fill(slots, 0, used, null);
+        used = 0;
+    }
+    
+    public String getName() { return name; }
+    public int size() { return entries.size(); }
+    public int getMaxEntries() { return maxEntries; }
+    public boolean isPrecompress() { return precompress; }
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+    // Réponses non admises car moins demandées que la victime proposée
+    public long getRejections() { return rejections.sum(); }
+    
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResponseCache[" + name + ", size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses() +
+                ", evictions=" + getEvictions() + ", rejections=" + getRejections() + "]";
+    }
+    
+    /**
+     * Clé et génération du cache relevées avant l'appel du contrôleur.
+     */
+    static final class Ticket {
+        final String key;
+        final long generation;
+        
+        Ticket(String key, long generation) {
+            this.key = key;
+            this.generation = generation;
+        }
+    }
+    
+    private static final class Entry {
+        final String key;
+        final EncodedResponse response;
+        final long expiresAt;
+        // Position dans slots, modifiée sous le verrou du cache
+        int slot;
+        
+        Entry(String key, EncodedResponse response, long expiresAt) {
+            this.key = key;
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
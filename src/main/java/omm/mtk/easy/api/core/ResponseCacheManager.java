@@ -0,0 +1,61 @@
+package omm.mtk.easy.api.core;
+
+import omm.mtk.easy.api.annotation.Cacheable;
+import omm.mtk.easy.api.annotation.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches de réponses des routes {@code @Cacheable}, par nom. Bean du framework, toujours présent :
+ * un service l'injecte pour invalider les réponses après une écriture.
+ * <pre>
+ * cacheManager.invalidate("products", "/api/products/" + id);
+ * </pre>
+ *
+ * @author mahatoky rasolonirina
+ */
+@Component
+public class ResponseCacheManager {
+    private final Map<String, ResponseCache> caches = new ConcurrentHashMap<>();
+    
+    /**
+     * Les routes qui partagent un nom partagent le cache, créé avec les réglages de la première.
+     */
+    ResponseCache register(String name, Cacheable cacheable) {
+        return caches.computeIfAbsent(name, key ->
+                new ResponseCache(key, cacheable.ttl(), cacheable.maxEntries(), cacheable.params(), cacheable.headers(),
+                        cacheable.precompress()));
+    }
+    
+    /**
+     * @return le cache, ou {@code null} si aucune route ne le déclare
+     */
+    public ResponseCache getCache(String name) {
+        return caches.get(name);
+    }
+    
+    public Collection<ResponseCache> getCaches() {
+        return Collections.unmodifiableCollection(caches.values());
+    }
+    
+    public void invalidate(String cacheName) {
+        ResponseCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+    
+    public void invalidate(String cacheName, String path) {
+        ResponseCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.invalidate(path);
+        }
+    }
+    
+    public void invalidateAll() {
+        caches.values().forEach(ResponseCache::invalidateAll);
+    }
+}
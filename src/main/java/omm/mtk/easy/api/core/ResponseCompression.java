@@ -0,0 +1,70 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.http.HttpServerRequest;
+
+/**
+ * Réglages de compression des réponses ({@code server.compression.*}) et lecture de
+ * l'{@code Accept-Encoding} du client.
+ * <p>
+ * La compression à la volée est faite par Vert.x ; le routeur s'en sert pour marquer
+ * en {@code identity} les corps trop petits, et pour servir directement la variante gzip
+ * déjà calculée d'une réponse en cache.
+ *
+ * @author mahatoky rasolonirina
+ */
+final class ResponseCompression {
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+    static final String IDENTITY = "identity";
+    
+    private final int minResponseSize;
+    private final int level;
+    
+    ResponseCompression(ServerProperties.Compression compression) {
+        this.minResponseSize = compression.getMinResponseSize();
+        this.level = compression.getLevel();
+    }
+    
+    boolean isCompressible(int length) {
+        return length >= minResponseSize;
+    }
+    
+    int getLevel() {
+        return level;
+    }
+    
+    /**
+     * @return {@code gzip}, sinon {@code deflate}, selon ce que le client accepte ({@code q=0} exclut), ou {@code null}
+     */
+    static String negotiate(HttpServerRequest request) {
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String token : acceptEncoding.split(",")) {
+            int semicolon = token.indexOf(';');
+            String coding = (semicolon < 0 ? token : token.substring(0, semicolon)).trim();
+            if (semicolon >= 0 && isZeroQuality(token.substring(semicolon + 1))) {
+                continue;
+            }
+            if (coding.equalsIgnoreCase(GZIP) || coding.equals("*")) {
+                return GZIP;
+            }
+            deflate |= coding.equalsIgnoreCase(DEFLATE);
+        }
+        return deflate ? DEFLATE : null;
+    }
+    
+    private static boolean isZeroQuality(String parameters) {
+        String value = parameters.trim();
+        if (!value.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(value.substring(2).trim()) == 0.0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
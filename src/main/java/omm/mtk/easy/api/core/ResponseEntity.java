@@ -2,11 +2,15 @@ package omm.mtk.easy.api.core;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 public class ResponseEntity<T> {
-    private final T body;
+    private T body;
+    private Supplier<? extends T> bodySupplier;
     private final int status;
     private final Map<String, String> headers;
+    private String eTag;
+    private long lastModified = -1;
     
     public ResponseEntity(T body, int status) {
         this.body = body;
@@ -14,6 +18,16 @@ public class ResponseEntity<T> {
         this.headers = new HashMap<>();
     }
     
+    /**
+     * Réponse 200 dont le corps n'est construit que s'il doit être envoyé : avec {@link #eTag}
+     * ou {@link #lastModified}, un client déjà à jour reçoit un 304 sans que {@code body} soit appelé.
+     */
+    public static <T> ResponseEntity<T> lazy(Supplier<? extends T> body) {
+        ResponseEntity<T> entity = new ResponseEntity<>(null, 200);
+        entity.bodySupplier = body;
+        return entity;
+    }
+    
     public ResponseEntity(T body) {
         this(body, 200);
     }
@@ -67,7 +81,30 @@ public class ResponseEntity<T> {
         return header("Location", location);
     }
     
-    public T getBody() { return body; }
+    /**
+     * ETag faible {@code W/"version"} construit à partir d'une version de la ressource.
+     * Une valeur déjà entre guillemets ({@code "..."} ou {@code W/"..."}) est reprise telle quelle.
+     */
+    public ResponseEntity<T> eTag(String version) {
+        this.eTag = version.startsWith("\"") || version.startsWith("W/\"") ? version : "W/\"" + version + "\"";
+        return this;
+    }
+    
+    public ResponseEntity<T> lastModified(long epochMillis) {
+        this.lastModified = epochMillis;
+        return this;
+    }
+    
+    public T getBody() {
+        if (body == null && bodySupplier != null) {
+            body = bodySupplier.get();
+            bodySupplier = null;
+        }
+        return body;
+    }
+    
+    public String getETag() { return eTag; }
+    public long getLastModified() { return lastModified; }
     public int getStatus() { return status; }
     public Map<String, String> getHeaders() { return headers; }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Stratégie d'écriture du résultat d'une route, choisie à l'enregistrement.
+ *
+ * @author mahatoky rasolonirina
+ */
+@FunctionalInterface
+public interface ResponseWriter {
+    void write(RoutingContext ctx, Object result);
+}
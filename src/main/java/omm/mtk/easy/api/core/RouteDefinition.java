@@ -0,0 +1,79 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.RoutingContext;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Plan d'exécution immuable d'une route : invoker compilé, un résolveur par paramètre
+ * et la stratégie d'écriture de la réponse. Aucune réflexion n'est faite par requête.
+ *
+ * @author mahatoky rasolonirina
+ */
+public final class RouteDefinition {
+    private static final Object[] NO_ARGS = new Object[0];
+    
+    public enum BodyMode { NONE, BUFFERED, STREAMING }
+    
+    private final HttpMethod httpMethod;
+    private final String path;
+    private final Method method;
+    private final MethodInvoker invoker;
+    private final ParameterResolver[] resolvers;
+    private final ResponseWriter responseWriter;
+    private final WorkerPool workerPool;
+    private final boolean async;
+    private final BodyMode bodyMode;
+    private final long bodyLimit;
+    private final ResponseCache responseCache;
+    
+    RouteDefinition(HttpMethod httpMethod, String path, Method method, MethodInvoker invoker,
+                    ParameterResolver[] resolvers, ResponseWriter responseWriter, WorkerPool workerPool,
+                    BodyMode bodyMode, long bodyLimit, ResponseCache responseCache) {
+        this.httpMethod = httpMethod;
+        this.path = path;
+        this.method = method;
+        this.invoker = invoker;
+        this.resolvers = resolvers;
+        this.responseWriter = responseWriter;
+        this.workerPool = workerPool;
+        this.async = isAsyncType(method.getReturnType());
+        this.bodyMode = bodyMode;
+        this.bodyLimit = bodyLimit;
+        this.responseCache = responseCache;
+    }
+    
+    private static boolean isAsyncType(Class<?> returnType) {
+        return CompletionStage.class.isAssignableFrom(returnType) ||
+                Future.class.isAssignableFrom(returnType) ||
+                Promise.class.isAssignableFrom(returnType) ||
+                returnType == Object.class;
+    }
+    
+    public Object[] resolveArguments(RoutingContext ctx) {
+        if (resolvers.length == 0) {
+            return NO_ARGS;
+        }
+        Object[] args = new Object[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(ctx);
+        }
+        return args;
+    }
+    
+    public HttpMethod getHttpMethod() { return httpMethod; }
+    public String getPath() { return path; }
+    public Method getMethod() { return method; }
+    public MethodInvoker getInvoker() { return invoker; }
+    public ResponseWriter getResponseWriter() { return responseWriter; }
+    public WorkerPool getWorkerPool() { return workerPool; }
+    public boolean isBlocking() { return workerPool != null; }
+    public boolean isAsync() { return async; }
+    public BodyMode getBodyMode() { return bodyMode; }
+    public long getBodyLimit() { return bodyLimit; }
+    public ResponseCache getResponseCache() { return responseCache; }
+}
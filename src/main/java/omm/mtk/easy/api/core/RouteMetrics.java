@@ -0,0 +1,120 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures d'une route : requêtes par statut, exceptions, requêtes en cours et histogramme des durées.
+ * <p>
+ * Tout est compté dans des {@link LongAdder}, sans verrou : les event loops qui servent la même route
+ * n'écrivent pas sur la même ligne de cache. Une requête coûte deux {@code nanoTime()} et le handler
+ * de fin de réponse ; les buckets, fixes, ne sont cumulés qu'à l'export.
+ *
+ * @author mahatoky rasolonirina
+ */
+public class RouteMetrics {
+    // Bornes supérieures des buckets, de 500 µs à 10 s, plus le bucket +Inf
+    static final long[] BUCKET_BOUNDS_NANOS = {
+            500_000L, 1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L, 1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+    // Statut enregistré pour une connexion fermée avant la fin de la réponse (convention nginx)
+    static final int CLIENT_CLOSED = 499;
+    private static final int MAX_STATUS = 600;
+    
+    private final String method;
+    private final String path;
+    private final AtomicReferenceArray<LongAdder> requestsByStatus = new AtomicReferenceArray<>(MAX_STATUS);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_NANOS.length + 1];
+    private final LongAdder durationNanos = new LongAdder();
+    
+    RouteMetrics(String method, String path) {
+        this.method = method;
+        this.path = path;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * Premier handler de la route : la mesure couvre la lecture du corps, l'appel du contrôleur
+     * et l'écriture de la réponse. Le handler de fin est aussi appelé si la connexion se ferme avant.
+     */
+    void start(RoutingContext ctx) {
+        long start = System.nanoTime();
+        inFlight.increment();
+        HttpServerResponse response = ctx.response();
+        response.endHandler(v -> record(response.ended() ? response.getStatusCode() : CLIENT_CLOSED,
+                System.nanoTime() - start));
+        ctx.next();
+    }
+    
+    void record(int status, long nanos) {
+        inFlight.decrement();
+        statusCounter(status).increment();
+        durationNanos.add(nanos);
+        buckets[bucketIndex(nanos)].increment();
+    }
+    
+    void recordError() {
+        errors.increment();
+    }
+    
+    private LongAdder statusCounter(int status) {
+        int index = status >= 0 && status < MAX_STATUS ? status : 0;
+        LongAdder counter = requestsByStatus.get(index);
+        if (counter == null) {
+            requestsByStatus.compareAndSet(index, null, new LongAdder());
+            counter = requestsByStatus.get(index);
+        }
+        return counter;
+    }
+    
+    static int bucketIndex(long nanos) {
+        for (int i = 0; i < BUCKET_BOUNDS_NANOS.length; i++) {
+            if (nanos <= BUCKET_BOUNDS_NANOS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_NANOS.length;
+    }
+    
+    public String getMethod() { return method; }
+    
+    public String getPath() { return path; }
+    
+    /**
+     * @return requêtes terminées avec ce statut
+     */
+    public long getRequests(int status) {
+        LongAdder counter = status >= 0 && status < MAX_STATUS ? requestsByStatus.get(status) : null;
+        return counter == null ? 0 : counter.sum();
+    }
+    
+    public long getRequests() {
+        long total = 0;
+        for (int status = 0; status < MAX_STATUS; status++) {
+            total += getRequests(status);
+        }
+        return total;
+    }
+    
+    /**
+     * @return exceptions levées par le contrôleur, qu'un {@code @ControllerAdvice} les ait traitées ou non
+     */
+    public long getErrors() { return errors.sum(); }
+    
+    public long getInFlight() { return inFlight.sum(); }
+    
+    public long getTotalTimeMillis() { return TimeUnit.NANOSECONDS.toMillis(durationNanos.sum()); }
+    
+    long getDurationNanos() { return durationNanos.sum(); }
+    
+    long getBucket(int index) { return buckets[index].sum(); }
+}
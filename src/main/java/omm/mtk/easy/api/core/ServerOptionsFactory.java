@@ -0,0 +1,210 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.Http2Settings;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.net.JksOptions;
+import io.vertx.core.net.KeyCertOptions;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.PfxOptions;
+import io.vertx.core.net.SelfSignedCertificate;
+import io.vertx.core.net.SocketAddress;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construit les {@link HttpServerOptions} et les adresses d'écoute à partir de {@link ServerProperties}, une seule fois
+ * au démarrage : toutes les instances du serveur partagent les mêmes options (et le même
+ * certificat auto-signé, le cas échéant), Vert.x en faisant une copie par serveur.
+ *
+ * @author mahatoky rasolonirina
+ */
+final class ServerOptionsFactory {
+    private static final EasyLogger log = EasyLogger.getLogger(ServerOptionsFactory.class);
+    
+    private ServerOptionsFactory() {
+    }
+    
+    static HttpServerOptions create(ServerProperties properties, boolean nativeTransport) {
+        HttpServerOptions options = new HttpServerOptions();
+        configureTcp(options, properties, nativeTransport);
+        configureCompression(options, properties.getCompression());
+        configureSsl(options, properties.getSsl());
+        configureHttp2(options, properties.getHttp2(), properties.getSsl().isEnabled());
+        return options;
+    }
+    
+    /**
+     * Port TCP (sauf {@code port < 0}) et socket Unix ({@code server.unix-socket}), servis par
+     * le même routeur. Une socket laissée par un arrêt brutal doit d'abord être libérée par
+     * {@link #releaseStaleSocket}.
+     */
+    static List<SocketAddress> listenAddresses(ServerProperties properties, int port, boolean nativeTransport) {
+        List<SocketAddress> addresses = new ArrayList<>();
+        if (port >= 0) {
+            addresses.add(SocketAddress.inetSocketAddress(port, properties.getHost()));
+        }
+        String unixSocket = properties.getUnixSocket();
+        if (unixSocket != null && !unixSocket.isEmpty()) {
+            if (!nativeTransport) {
+                throw new IllegalStateException("server.unix-socket requires the native transport " +
+                        "(netty-transport-native-epoll on Linux, kqueue on macOS)");
+            }
+            addresses.add(SocketAddress.domainSocketAddress(unixSocket));
+        }
+        if (addresses.isEmpty()) {
+            throw new IllegalStateException("Nothing to listen on: server.port is negative and server.unix-socket is not set");
+        }
+        return addresses;
+    }
+    
+    /**
+     * Supprime le fichier {@code server.unix-socket} laissé par un arrêt brutal. Une connexion est
+     * tentée d'abord : seul un refus (aucun processus n'écoute) autorise la suppression, une socket
+     * encore servie fait échouer le démarrage. Un fichier ordinaire ou un répertoire n'est jamais
+     * supprimé : un chemin mal configuré ne doit pas effacer autre chose qu'une socket.
+     */
+    static void releaseStaleSocket(Vertx vertx, String unixSocket, Handler<AsyncResult<Void>> handler) {
+        Path socket = unixSocket == null || unixSocket.isEmpty() ? null : Paths.get(unixSocket);
+        if (socket == null || !Files.exists(socket)) {
+            handler.handle(Future.succeededFuture());
+            return;
+        }
+        if (Files.isRegularFile(socket) || Files.isDirectory(socket)) {
+            handler.handle(Future.failedFuture(
+                    new IllegalStateException("server.unix-socket " + socket + " exists and is not a socket")));
+            return;
+        }
+        
+        NetClient client = vertx.createNetClient();
+        client.connect(SocketAddress.domainSocketAddress(unixSocket), result -> {
+            client.close();
+            if (result.succeeded()) {
+                result.result().close();
+                handler.handle(Future.failedFuture(
+                        new IllegalStateException("server.unix-socket " + socket + " is in use by another process")));
+            } else if (result.cause() instanceof FileNotFoundException) {
+                // Supprimée entre-temps
+                handler.handle(Future.succeededFuture());
+            } else if (!isConnectionRefused(result.cause())) {
+                handler.handle(Future.failedFuture(
+                        new IllegalStateException("Cannot tell whether server.unix-socket " + socket + " is in use", result.cause())));
+            } else {
+                try {
+                    Files.deleteIfExists(socket);
+                    log.debug("Deleted stale unix socket {}", socket);
+                    handler.handle(Future.succeededFuture());
+                } catch (IOException e) {
+                    handler.handle(Future.failedFuture(new UncheckedIOException("Cannot delete stale unix socket " + socket, e)));
+                }
+            }
+        });
+    }
+    
+    /**
+     * ECONNREFUSED : le transport natif lève une {@link ConnectException} portant le message de {@code strerror}.
+     */
+    static boolean isConnectionRefused(Throwable cause) {
+        return cause instanceof ConnectException && cause.getMessage() != null &&
+                cause.getMessage().contains("Connection refused");
+    }
+    
+    private static void configureTcp(HttpServerOptions options, ServerProperties properties, boolean nativeTransport) {
+        options.setHost(properties.getHost())
+                .setTcpNoDelay(properties.isTcpNoDelay())
+                .setTcpKeepAlive(properties.isTcpKeepAlive())
+                .setTcpFastOpen(properties.isTcpFastOpen())
+                .setTcpQuickAck(properties.isTcpQuickAck())
+                .setReusePort(properties.isReusePort());
+        if (properties.getAcceptBacklog() > 0) {
+            options.setAcceptBacklog(properties.getAcceptBacklog());
+        }
+        if (properties.getIdleTimeout() > 0) {
+            options.setIdleTimeout(properties.getIdleTimeout()).setIdleTimeoutUnit(TimeUnit.SECONDS);
+        }
+        if (properties.getReceiveBufferSize() > 0) {
+            options.setReceiveBufferSize(properties.getReceiveBufferSize());
+        }
+        if (properties.getSendBufferSize() > 0) {
+            options.setSendBufferSize(properties.getSendBufferSize());
+        }
+        if (!nativeTransport && (properties.isTcpFastOpen() || properties.isTcpQuickAck() || properties.isReusePort())) {
+            log.warn("server.tcp-fast-open, server.tcp-quick-ack and server.reuse-port are ignored without native transport");
+        }
+    }
+    
+    /**
+     * La négociation gzip/deflate est faite par Vert.x ; le routeur marque les petites réponses
+     * en {@code identity} pour qu'elles ne soient pas compressées.
+     */
+    private static void configureCompression(HttpServerOptions options, ServerProperties.Compression compression) {
+        options.setCompressionSupported(compression.isEnabled())
+                .setCompressionLevel(compression.getLevel());
+    }
+    
+    private static void configureSsl(HttpServerOptions options, ServerProperties.Ssl ssl) {
+        if (!ssl.isEnabled()) {
+            return;
+        }
+        options.setSsl(true).setKeyCertOptions(keyCertOptions(ssl));
+    }
+    
+    private static KeyCertOptions keyCertOptions(ServerProperties.Ssl ssl) {
+        if (ssl.isSelfSigned()) {
+            log.warn("Using a self-signed certificate for localhost, do not use in production");
+            return SelfSignedCertificate.create("localhost").keyCertOptions();
+        }
+        if (ssl.getKeyStore() == null || ssl.getKeyStore().isEmpty()) {
+            throw new IllegalStateException("server.ssl.enabled requires server.ssl.key-store or server.ssl.self-signed=true");
+        }
+        if ("PKCS12".equalsIgnoreCase(ssl.getKeyStoreType()) || "PFX".equalsIgnoreCase(ssl.getKeyStoreType())) {
+            return new PfxOptions().setPath(ssl.getKeyStore()).setPassword(ssl.getKeyStorePassword());
+        }
+        return new JksOptions().setPath(ssl.getKeyStore()).setPassword(ssl.getKeyStorePassword());
+    }
+    
+    /**
+     * Avec TLS, h2 est proposé par ALPN avant HTTP/1.1 ; en clair, h2c est accepté par upgrade
+     * ou directement (prior knowledge). Sans {@code server.http2.enabled}, seul HTTP/1.1 est servi.
+     */
+    private static void configureHttp2(HttpServerOptions options, ServerProperties.Http2 http2, boolean ssl) {
+        options.setHttp2ClearTextEnabled(http2.isEnabled() && !ssl);
+        if (!http2.isEnabled()) {
+            return;
+        }
+        
+        Http2Settings settings = new Http2Settings().setMaxConcurrentStreams(http2.getMaxConcurrentStreams());
+        if (http2.getInitialWindowSize() > 0) {
+            settings.setInitialWindowSize(http2.getInitialWindowSize());
+        }
+        if (http2.getMaxFrameSize() > 0) {
+            settings.setMaxFrameSize(http2.getMaxFrameSize());
+        }
+        if (http2.getMaxHeaderListSize() > 0) {
+            settings.setMaxHeaderListSize(http2.getMaxHeaderListSize());
+        }
+        options.setInitialSettings(settings);
+        if (http2.getConnectionWindowSize() > 0) {
+            options.setHttp2ConnectionWindowSize(http2.getConnectionWindowSize());
+        }
+        if (ssl) {
+            options.setUseAlpn(true).setAlpnVersions(Arrays.asList(HttpVersion.HTTP_2, HttpVersion.HTTP_1_1));
+        }
+        log.info("HTTP/2 enabled ({}), max {} concurrent streams per connection",
+                ssl ? "h2 over TLS" : "h2c cleartext", http2.getMaxConcurrentStreams());
+    }
+}
@@ -0,0 +1,166 @@
+package omm.mtk.easy.api.core;
+
+import omm.mtk.easy.api.annotation.ConfigurationProperties;
+
+/**
+ * Configuration du serveur HTTP, liée depuis les propriétés {@code server.*}.
+ * Bean du framework, toujours présent dans le contexte.
+ * <p>
+ * Les options TCP valant -1 gardent la valeur par défaut du système. {@code tcp-fast-open},
+ * {@code tcp-quick-ack} et {@code reuse-port} n'ont d'effet qu'avec le transport natif
+ * ({@code prefer-native-transport}, epoll sous Linux).
+ *
+ * @author mahatoky rasolonirina
+ */
+@ConfigurationProperties(prefix = "server")
+public class ServerProperties {
+    private int port = 8080; // -1 = pas d'écoute TCP (socket Unix seule)
+    private String host = "0.0.0.0";
+    // Socket Unix servie en plus du port TCP, exige le transport natif
+    private String unixSocket;
+    // Instances du serveur HTTP, une par event loop
+    private int instances = Runtime.getRuntime().availableProcessors();
+    // Transport natif (epoll sous Linux) si disponible, sinon NIO
+    private boolean preferNativeTransport = false;
+    private boolean tcpNoDelay = true;
+    private boolean tcpFastOpen = false;
+    private boolean tcpQuickAck = false;
+    private boolean tcpKeepAlive = false;
+    // Plusieurs processus sur le même port, le noyau répartissant les connexions
+    private boolean reusePort = false;
+    private int acceptBacklog = -1;
+    private int idleTimeout = 0; // secondes, 0 = jamais fermée
+    private int receiveBufferSize = -1;
+    private int sendBufferSize = -1;
+    private Compression compression = new Compression();
+    private Http2 http2 = new Http2();
+    private Ssl ssl = new Ssl();
+    
+    public int getPort() { return port; }
+    public void setPort(int port) { this.port = port; }
+    
+    public String getHost() { return host; }
+    public void setHost(String host) { this.host = host; }
+    
+    public String getUnixSocket() { return unixSocket; }
+    public void setUnixSocket(String unixSocket) { this.unixSocket = unixSocket; }
+    
+    public int getInstances() { return instances; }
+    public void setInstances(int instances) { this.instances = instances; }
+    
+    public boolean isPreferNativeTransport() { return preferNativeTransport; }
+    public void setPreferNativeTransport(boolean preferNativeTransport) { this.preferNativeTransport = preferNativeTransport; }
+    
+    public boolean isTcpNoDelay() { return tcpNoDelay; }
+    public void setTcpNoDelay(boolean tcpNoDelay) { this.tcpNoDelay = tcpNoDelay; }
+    
+    public boolean isTcpFastOpen() { return tcpFastOpen; }
+    public void setTcpFastOpen(boolean tcpFastOpen) { this.tcpFastOpen = tcpFastOpen; }
+    
+    public boolean isTcpQuickAck() { return tcpQuickAck; }
+    public void setTcpQuickAck(boolean tcpQuickAck) { this.tcpQuickAck = tcpQuickAck; }
+    
+    public boolean isTcpKeepAlive() { return tcpKeepAlive; }
+    public void setTcpKeepAlive(boolean tcpKeepAlive) { this.tcpKeepAlive = tcpKeepAlive; }
+    
+    public boolean isReusePort() { return reusePort; }
+    public void setReusePort(boolean reusePort) { this.reusePort = reusePort; }
+    
+    public int getAcceptBacklog() { return acceptBacklog; }
+    public void setAcceptBacklog(int acceptBacklog) { this.acceptBacklog = acceptBacklog; }
+    
+    public int getIdleTimeout() { return idleTimeout; }
+    public void setIdleTimeout(int idleTimeout) { this.idleTimeout = idleTimeout; }
+    
+    public int getReceiveBufferSize() { return receiveBufferSize; }
+    public void setReceiveBufferSize(int receiveBufferSize) { this.receiveBufferSize = receiveBufferSize; }
+    
+    public int getSendBufferSize() { return sendBufferSize; }
+    public void setSendBufferSize(int sendBufferSize) { this.sendBufferSize = sendBufferSize; }
+    
+    public Compression getCompression() { return compression; }
+    public void setCompression(Compression compression) { this.compression = compression; }
+    
+    public Http2 getHttp2() { return http2; }
+    public void setHttp2(Http2 http2) { this.http2 = http2; }
+    
+    public Ssl getSsl() { return ssl; }
+    public void setSsl(Ssl ssl) { this.ssl = ssl; }
+    
+    /**
+     * {@code server.compression.*} : gzip ou deflate selon l'{@code Accept-Encoding} du client,
+     * pour les corps d'au moins {@code min-response-size} octets.
+     */
+    public static class Compression {
+        private boolean enabled = false;
+        private int minResponseSize = 2048;
+        private int level = 6; // 1 (rapide) à 9 (plus compact)
+        
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        
+        public int getMinResponseSize() { return minResponseSize; }
+        public void setMinResponseSize(int minResponseSize) { this.minResponseSize = minResponseSize; }
+        
+        public int getLevel() { return level; }
+        public void setLevel(int level) { this.level = level; }
+    }
+    
+    /**
+     * {@code server.http2.*} : HTTP/2 négocié par ALPN avec TLS, ou h2c en clair (upgrade ou prior knowledge).
+     * Les réglages sont annoncés au client dans les SETTINGS initiaux ; -1 garde la valeur par défaut de Vert.x.
+     */
+    public static class Http2 {
+        private boolean enabled = false;
+        private long maxConcurrentStreams = 100;
+        private int initialWindowSize = -1; // fenêtre par flux, 65535 par défaut
+        private int connectionWindowSize = -1; // fenêtre de la connexion
+        private int maxFrameSize = -1;
+        private long maxHeaderListSize = -1;
+        
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        
+        public long getMaxConcurrentStreams() { return maxConcurrentStreams; }
+        public void setMaxConcurrentStreams(long maxConcurrentStreams) { this.maxConcurrentStreams = maxConcurrentStreams; }
+        
+        public int getInitialWindowSize() { return initialWindowSize; }
+        public void setInitialWindowSize(int initialWindowSize) { this.initialWindowSize = initialWindowSize; }
+        
+        public int getConnectionWindowSize() { return connectionWindowSize; }
+        public void setConnectionWindowSize(int connectionWindowSize) { this.connectionWindowSize = connectionWindowSize; }
+        
+        public int getMaxFrameSize() { return maxFrameSize; }
+        public void setMaxFrameSize(int maxFrameSize) { this.maxFrameSize = maxFrameSize; }
+        
+        public long getMaxHeaderListSize() { return maxHeaderListSize; }
+        public void setMaxHeaderListSize(long maxHeaderListSize) { this.maxHeaderListSize = maxHeaderListSize; }
+    }
+    
+    /**
+     * {@code server.ssl.*} : keystore JKS ou PKCS12, ou certificat auto-signé généré au démarrage
+     * ({@code self-signed=true}, pour le développement uniquement).
+     */
+    public static class Ssl {
+        private boolean enabled = false;
+        private boolean selfSigned = false;
+        private String keyStore;
+        private String keyStorePassword;
+        private String keyStoreType = "JKS"; // JKS ou PKCS12
+        
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        
+        public boolean isSelfSigned() { return selfSigned; }
+        public void setSelfSigned(boolean selfSigned) { this.selfSigned = selfSigned; }
+        
+        public String getKeyStore() { return keyStore; }
+        public void setKeyStore(String keyStore) { this.keyStore = keyStore; }
+        
+        public String getKeyStorePassword() { return keyStorePassword; }
+        public void setKeyStorePassword(String keyStorePassword) { this.keyStorePassword = keyStorePassword; }
+        
+        public String getKeyStoreType() { return keyStoreType; }
+        public void setKeyStoreType(String keyStoreType) { this.keyStoreType = keyStoreType; }
+    }
+}
@@ -0,0 +1,151 @@
+package omm.mtk.easy.api.core;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durée de chaque phase d'une requête ({@code easy.http.server-timing=true}) : résolution des paramètres,
+ * appel du contrôleur, encodage de la réponse et traitement d'une exception.
+ * <p>
+ * Chaque réponse porte un en-tête {@code Server-Timing} (lu par les devtools des navigateurs), posé juste
+ * avant l'écriture des en-têtes : une phase encore en cours à ce moment-là est comptée jusque-là.
+ * Les durées sont aussi cumulées par route, accessibles via {@code getWebRouter().getServerTiming()}.
+ * Pour une route asynchrone, {@code invoke} s'arrête au retour du contrôleur, pas à la fin du traitement.
+ *
+ * @author mahatoky rasolonirina
+ */
+public class ServerTiming {
+    public static final String HEADER = "Server-Timing";
+    static final int BIND = 0;
+    static final int INVOKE = 1;
+    static final int SERIALIZE = 2;
+    static final int ERROR = 3;
+    static final String[] PHASES = {"bind", "invoke", "serialize", "error"};
+    
+    private final Map<RouteDefinition, PhaseStats> byRoute = new IdentityHashMap<>();
+    
+    ServerTiming(List<RouteDefinition> routes) {
+        for (RouteDefinition route : routes) {
+            byRoute.put(route, new PhaseStats(route.getHttpMethod().name(), route.getPath()));
+        }
+    }
+    
+    PhaseStats forRoute(RouteDefinition route) {
+        return byRoute.get(route);
+    }
+    
+    public Collection<PhaseStats> getRoutes() {
+        return Collections.unmodifiableCollection(byRoute.values());
+    }
+    
+    /**
+     * Chronomètre d'une requête, posé sur le {@code RoutingContext}. Une seule phase est ouverte à la fois :
+     * en ouvrir une ferme la précédente. Utilisé par un seul thread à la fois (event loop, puis worker
+     * d'une route {@code @Blocking}, puis de nouveau l'event loop).
+     */
+    static final class Timer {
+        // -1 tant que la phase n'a pas eu lieu
+        private final long[] nanos = {-1, -1, -1, -1};
+        private int phase = -1;
+        private long phaseStart;
+        
+        void begin(int phase) {
+            end();
+            this.phase = phase;
+            this.phaseStart = System.nanoTime();
+        }
+        
+        void end() {
+            if (phase >= 0) {
+                nanos[phase] = Math.max(nanos[phase], 0) + System.nanoTime() - phaseStart;
+                phase = -1;
+            }
+        }
+        
+        /**
+         * @return la valeur de l'en-tête, en millisecondes, ou {@code null} si aucune phase n'a eu lieu
+         * (réponse servie depuis le cache par exemple)
+         */
+        String header() {
+            StringBuilder out = null;
+            for (int i = 0; i < nanos.length; i++) {
+                if (nanos[i] < 0) {
+                    continue;
+                }
+                out = out == null ? new StringBuilder(64) : out.append(", ");
+                out.append(PHASES[i]).append(";dur=")
+                        .append(String.format(Locale.ROOT, "%.3f", nanos[i] / 1_000_000.0));
+            }
+            return out == null ? null : out.toString();
+        }
+    }
+    
+    /**
+     * Nombre d'occurrences, durée cumulée et durée maximale de chaque phase pour une route.
+     */
+    public static class PhaseStats {
+        private final String method;
+        private final String path;
+        private final LongAdder[] counts = new LongAdder[PHASES.length];
+        private final LongAdder[] totalNanos = new LongAdder[PHASES.length];
+        private final LongAccumulator[] maxNanos = new LongAccumulator[PHASES.length];
+        
+        PhaseStats(String method, String path) {
+            this.method = method;
+            this.path = path;
+            for (int i = 0; i < PHASES.length; i++) {
+                counts[i] = new LongAdder();
+                totalNanos[i] = new LongAdder();
+                maxNanos[i] = new LongAccumulator(Long::max, 0);
+            }
+        }
+        
+        void record(Timer timer) {
+            for (int i = 0; i < PHASES.length; i++) {
+                long nanos = timer.nanos[i];
+                if (nanos >= 0) {
+                    counts[i].increment();
+                    totalNanos[i].add(nanos);
+                    maxNanos[i].accumulate(nanos);
+                }
+            }
+        }
+        
+        public String getMethod() { return method; }
+        public String getPath() { return path; }
+        
+        public long getCount(String phase) { return counts[indexOf(phase)].sum(); }
+        public long getTotalNanos(String phase) { return totalNanos[indexOf(phase)].sum(); }
+        public long getMaxNanos(String phase) { return maxNanos[indexOf(phase)].get(); }
+        
+        public double getAverageMillis(String phase) {
+            long count = getCount(phase);
+            return count == 0 ? 0 : getTotalNanos(phase) / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+        
+        private static int indexOf(String phase) {
+            for (int i = 0; i < PHASES.length; i++) {
+                if (PHASES[i].equals(phase)) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Unknown phase '" + phase + "', expected one of bind, invoke, serialize, error");
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder(method).append(' ').append(path);
+            for (String phase : PHASES) {
+                out.append(String.format(Locale.ROOT, " %s=%d/%.3fms", phase, getCount(phase), getAverageMillis(phase)));
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package omm.mtk.easy.api.core;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Durée de chaque phase du démarrage du contexte, dans l'ordre d'exécution,
+ * avec le nombre de classes scannées, de beans (créés et paresseux en attente) et de routes.
+ * <p>
+ * Écrit en une ligne au niveau {@code INFO} à la fin du démarrage et accessible ensuite via
+ * {@code EasyApi.getContext().getStartupReport()}.
+ *
+ * @author mahatoky rasolonirina
+ */
+public class StartupReport {
+    public static final String PROPERTIES = "properties";
+    public static final String SCAN = "scan";
+    public static final String GRAPH = "graph";
+    // Création, injection et liaison des propriétés, bean par bean dans l'ordre du graphe
+    public static final String BEANS = "beans";
+    public static final String ROUTES = "routes";
+    
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+    // Phases faites avant la création du contexte (propriétés lues par EasyApi), non chronométrées ici
+    private final Set<String> preloadedPhases = new LinkedHashSet<>();
+    private final long startNanos = System.nanoTime();
+    private long totalNanos;
+    private int scannedClasses;
+    private int beans;
+    private int lazyBeans;
+    private int routes;
+    
+    public <T> T time(String phase, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            phaseNanos.merge(phase, System.nanoTime() - start, Long::sum);
+        }
+    }
+    
+    public void time(String phase, Runnable action) {
+        time(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+    
+    void preloaded(String phase) {
+        preloadedPhases.add(phase);
+    }
+    
+    /**
+     * @return phases faites hors du contexte, avant sa création
+     */
+    public Set<String> getPreloadedPhases() {
+        return Collections.unmodifiableSet(preloadedPhases);
+    }
+    
+    void complete(int scannedClasses, int beans, int lazyBeans, int routes) {
+        this.totalNanos = System.nanoTime() - startNanos;
+        this.scannedClasses = scannedClasses;
+        this.beans = beans;
+        this.lazyBeans = lazyBeans;
+        this.routes = routes;
+    }
+    
+    /**
+     * @return durée de chaque phase en nanosecondes, dans l'ordre d'exécution
+     */
+    public Map<String, Long> getPhaseNanos() {
+        return Collections.unmodifiableMap(phaseNanos);
+    }
+    
+    public long getPhaseMillis(String phase) {
+        return TimeUnit.NANOSECONDS.toMillis(phaseNanos.getOrDefault(phase, 0L));
+    }
+    
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+    }
+    
+    public int getScannedClasses() {
+        return scannedClasses;
+    }
+    
+    public int getBeans() {
+        return beans;
+    }
+    
+    /**
+     * @return beans paresseux pas encore créés à la fin du démarrage
+     */
+    public int getLazyBeans() {
+        return lazyBeans;
+    }
+    
+    public int getRoutes() {
+        return routes;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("Context started in ").append(getTotalMillis()).append(" ms (");
+        boolean first = true;
+        for (String phase : preloadedPhases) {
+            out.append(first ? "" : ", ").append(phase).append(" preloaded");
+            first = false;
+        }
+        for (Map.Entry<String, Long> phase : phaseNanos.entrySet()) {
+            if (!first) {
+                out.append(", ");
+            }
+            out.append(phase.getKey()).append(' ')
+                    .append(String.format(Locale.ROOT, "%.1f", phase.getValue() / 1_000_000.0)).append(" ms");
+            first = false;
+        }
+        return out.append(") - ").append(scannedClasses).append(" classes, ")
+                .append(beans).append(" beans (").append(lazyBeans).append(" lazy pending), ")
+                .append(routes).append(" routes").toString();
+    }
+}
@@ -0,0 +1,118 @@
+package omm.mtk.easy.api.core;
+
+import omm.mtk.easy.api.annotation.Component;
+import omm.mtk.easy.api.annotation.Configuration;
+import omm.mtk.easy.api.annotation.ConfigurationProperties;
+import omm.mtk.easy.api.annotation.ControllerAdvice;
+import omm.mtk.easy.api.annotation.Repository;
+import omm.mtk.easy.api.annotation.RestController;
+import omm.mtk.easy.api.annotation.Service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pré-filtre du scan : lit le constant pool d'un fichier {@code .class} sans charger la classe
+ * et indique s'il référence l'une des annotations stéréotypes d'easy-api.
+ * <p>
+ * Une annotation présente sur la classe apparaît forcément comme descripteur {@code CONSTANT_Utf8}
+ * (par exemple {@code Lomm/mtk/easy/api/annotation/Service;}). L'absence de tous les descripteurs
+ * exclut donc la classe à coup sûr ; leur présence est confirmée après chargement par le contexte.
+ *
+ * @author mahatoky rasolonirina
+ */
+final class StereotypeFilter {
+    private static final int MAGIC = 0xCAFEBABE;
+    
+    private static final byte[][] DESCRIPTORS = descriptors(
+            Component.class, Service.class, Repository.class, RestController.class,
+            ControllerAdvice.class, Configuration.class, ConfigurationProperties.class);
+    
+    private StereotypeFilter() {
+    }
+    
+    /**
+     * @return {@code true} si la classe peut être un composant, ou si le fichier n'a pas pu être analysé
+     */
+    static boolean mayBeComponent(byte[] classFile) {
+        try {
+            return referencesStereotype(classFile);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            // Format inattendu : laisser le chargement classique trancher
+            return true;
+        }
+    }
+    
+    private static boolean referencesStereotype(byte[] b) {
+        if (readInt(b, 0) != MAGIC) {
+            throw new IllegalArgumentException("Not a class file");
+        }
+        int count = readUnsignedShort(b, 8);
+        int pos = 10;
+        for (int i = 1; i < count; i++) {
+            int tag = b[pos] & 0xFF;
+            switch (tag) {
+                case 1: // Utf8
+                    int length = readUnsignedShort(b, pos + 1);
+                    if (matchesDescriptor(b, pos + 3, length)) {
+                        return true;
+                    }
+                    pos += 3 + length;
+                    break;
+                case 3: case 4: // Integer, Float
+                case 9: case 10: case 11: case 12: // Fieldref, Methodref, InterfaceMethodref, NameAndType
+                case 17: case 18: // Dynamic, InvokeDynamic
+                    pos += 5;
+                    break;
+                case 5: case 6: // Long, Double : occupent deux entrées
+                    pos += 9;
+                    i++;
+                    break;
+                case 7: case 8: case 16: case 19: case 20: // Class, String, MethodType, Module, Package
+                    pos += 3;
+                    break;
+                case 15: // MethodHandle
+                    pos += 4;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown constant pool tag: " + tag);
+            }
+        }
+        return false;
+    }
+    
+    private static boolean matchesDescriptor(byte[] b, int offset, int length) {
+        for (byte[] descriptor : DESCRIPTORS) {
+            if (descriptor.length == length && regionEquals(b, offset, descriptor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Comparaison depuis la fin : les descripteurs partagent le préfixe du package d'annotations
+    private static boolean regionEquals(byte[] b, int offset, byte[] expected) {
+        for (int i = expected.length - 1; i >= 0; i--) {
+            if (b[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int readUnsignedShort(byte[] b, int pos) {
+        return ((b[pos] & 0xFF) << 8) | (b[pos + 1] & 0xFF);
+    }
+    
+    private static int readInt(byte[] b, int pos) {
+        return (readUnsignedShort(b, pos) << 16) | readUnsignedShort(b, pos + 2);
+    }
+    
+    private static byte[][] descriptors(Class<?>... annotations) {
+        byte[][] descriptors = new byte[annotations.length][];
+        for (int i = 0; i < annotations.length; i++) {
+            String descriptor = "L" + annotations[i].getName().replace('.', '/') + ";";
+            descriptors[i] = descriptor.getBytes(StandardCharsets.UTF_8);
+        }
+        return descriptors;
+    }
+}
@@ -0,0 +1,29 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+
+/**
+ * Codec par défaut, basé sur le mapper Jackson de Vert.x.
+ * Sortie compacte, écrite directement en octets ; l'indentation n'est activée
+ * que via la propriété {@code easy.json.pretty=true}.
+ *
+ * @author mahatoky rasolonirina
+ */
+public class VertxJsonCodec implements JsonCodec {
+    private final boolean pretty;
+    
+    public VertxJsonCodec(boolean pretty) {
+        this.pretty = pretty;
+    }
+    
+    @Override
+    public Buffer encode(Object value) {
+        return pretty ? Buffer.buffer(Json.encodePrettily(value)) : Json.encodeToBuffer(value);
+    }
+    
+    @Override
+    public <T> T decode(Buffer body, Class<T> type) {
+        return Json.decodeValue(body, type);
+    }
+}
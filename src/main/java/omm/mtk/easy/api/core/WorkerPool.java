@@ -0,0 +1,110 @@
+package omm.mtk.easy.api.core;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool nommé et borné pour les routes {@code @Blocking}.
+ * <p>
+ * En mode plateforme, {@code size} threads consomment une file de {@code queueSize} tâches.
+ * En mode virtuel (JDK 21+), chaque tâche a son thread virtuel et au plus
+ * {@code size + queueSize} tâches sont acceptées en même temps. Au-delà, la tâche est rejetée.
+ *
+ * @author mahatoky rasolonirina
+ */
+public class WorkerPool {
+    private static final EasyLogger log = EasyLogger.getLogger(WorkerPool.class);
+    
+    private final String name;
+    private final int size;
+    private final int queueSize;
+    private final boolean virtual;
+    private final ExecutorService executor;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    
+    WorkerPool(String name, int size, int queueSize, boolean virtual) {
+        this.name = name;
+        this.size = size;
+        this.queueSize = queueSize;
+        
+        ExecutorService virtualExecutor = virtual ? newVirtualThreadExecutor() : null;
+        if (virtual && virtualExecutor == null) {
+            log.warn("Virtual threads not available, worker pool '{}' uses platform threads", name);
+        }
+        this.virtual = virtualExecutor != null;
+        this.executor = virtualExecutor != null ? virtualExecutor : newPlatformExecutor(name, size, queueSize);
+    }
+    
+    /**
+     * @return {@code false} si le pool est saturé et que la tâche a été rejetée
+     */
+    public boolean submit(Runnable task) {
+        if (pending.incrementAndGet() > size + queueSize) {
+            pending.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    pending.decrementAndGet();
+                    completed.increment();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+    }
+    
+    private static ExecutorService newPlatformExecutor(String name, int size, int queueSize) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "easy-worker-" + name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+    
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+    
+    public String getName() { return name; }
+    public int getSize() { return size; }
+    public int getQueueSize() { return queueSize; }
+    public boolean isVirtual() { return virtual; }
+    public int getActiveCount() { return Math.min(pending.get(), size); }
+    public int getQueueDepth() { return Math.max(0, pending.get() - size); }
+    public long getRejectedCount() { return rejected.sum(); }
+    public long getCompletedCount() { return completed.sum(); }
+    
+    @Override
+    public String toString() {
+        return String.format("WorkerPool{name='%s', size=%d, queueSize=%d, virtual=%s, active=%d, queued=%d, rejected=%d}",
+                name, size, queueSize, virtual, getActiveCount(), getQueueDepth(), getRejectedCount());
+    }
+}
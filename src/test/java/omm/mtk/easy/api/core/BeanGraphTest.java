@@ -0,0 +1,119 @@
+package omm.mtk.easy.api.core;
+
+import omm.mtk.easy.api.annotation.Scope;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanGraphTest {
+    
+    static class Repo {
+    }
+    
+    static class Service {
+    }
+    
+    static class Controller {
+    }
+    
+    static class Audit {
+    }
+    
+    private static BeanDefinition bean(Class<?> type) {
+        return new BeanDefinition(type, type.getSimpleName(), false, false, Scope.SINGLETON);
+    }
+    
+    private static void dependsOn(BeanDefinition bean, BeanDefinition dependency, boolean constructor) {
+        bean.dependencies.add(dependency);
+        if (constructor) {
+            bean.constructorDependencies.add(dependency);
+        }
+    }
+    
+    private static int positionOf(List<List<BeanDefinition>> components, BeanDefinition bean) {
+        for (int i = 0; i < components.size(); i++) {
+            if (components.get(i).contains(bean)) {
+                return i;
+            }
+        }
+        return fail("Bean not in graph: " + bean);
+    }
+    
+    @Test
+    void ordersComponentsAfterTheirDependencies() {
+        BeanDefinition repo = bean(Repo.class);
+        BeanDefinition service = bean(Service.class);
+        BeanDefinition controller = bean(Controller.class);
+        BeanDefinition audit = bean(Audit.class);
+        dependsOn(controller, service, true);
+        dependsOn(service, repo, true);
+        dependsOn(audit, repo, false);
+        
+        // Ordre de déclaration inverse de l'ordre des dépendances
+        List<List<BeanDefinition>> components = new BeanGraph(Arrays.asList(controller, audit, service, repo)).getComponents();
+        
+        assertEquals(4, components.size());
+        assertTrue(positionOf(components, repo) < positionOf(components, service));
+        assertTrue(positionOf(components, service) < positionOf(components, controller));
+        assertTrue(positionOf(components, repo) < positionOf(components, audit));
+    }
+    
+    @Test
+    void groupsFieldCycleIntoOneComponentAfterItsDependencies() {
+        BeanDefinition repo = bean(Repo.class);
+        BeanDefinition service = bean(Service.class);
+        BeanDefinition controller = bean(Controller.class);
+        dependsOn(service, controller, false);
+        dependsOn(controller, service, false);
+        dependsOn(controller, repo, true);
+        
+        List<List<BeanDefinition>> components = new BeanGraph(Arrays.asList(service, controller, repo)).getComponents();
+        
+        assertEquals(2, components.size());
+        assertEquals(Collections.singletonList(repo), components.get(0));
+        assertEquals(new HashSet<>(Arrays.asList(service, controller)), new HashSet<>(components.get(1)));
+    }
+    
+    @Test
+    void rejectsCycleThroughConstructors() {
+        BeanDefinition service = bean(Service.class);
+        BeanDefinition controller = bean(Controller.class);
+        dependsOn(service, controller, true);
+        dependsOn(controller, service, false);
+        
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new BeanGraph(Arrays.asList(service, controller)));
+        assertTrue(e.getMessage().contains("Circular constructor dependency"));
+        assertTrue(e.getMessage().contains("Service needs Controller"));
+    }
+    
+    @Test
+    void parallelInitializationWaitsForDependencies() {
+        BeanDefinition repo = bean(Repo.class);
+        BeanDefinition service = bean(Service.class);
+        BeanDefinition controller = bean(Controller.class);
+        BeanDefinition audit = bean(Audit.class);
+        dependsOn(controller, service, true);
+        dependsOn(controller, audit, true);
+        dependsOn(service, repo, true);
+        dependsOn(audit, repo, true);
+        BeanGraph graph = new BeanGraph(Arrays.asList(controller, service, audit, repo));
+        
+        Set<BeanDefinition> initialized = ConcurrentHashMap.newKeySet();
+        graph.initialize(component -> {
+            for (BeanDefinition definition : component) {
+                assertTrue(initialized.containsAll(definition.dependencies), definition + " initialized too early");
+            }
+            initialized.addAll(component);
+        }, 4);
+        
+        assertEquals(4, initialized.size());
+    }
+}
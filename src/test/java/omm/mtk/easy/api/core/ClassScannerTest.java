@@ -0,0 +1,104 @@
+package omm.mtk.easy.api.core;
+
+import omm.mtk.easy.api.core.fixtures.scan.ScannedService;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassScannerTest {
+    
+    @Test
+    void findsTopLevelAndStaticNestedComponentsOnly() throws Exception {
+        Set<Class<?>> classes = ClassScanner.findClasses("omm.mtk.easy.api.core.fixtures.scan");
+        
+        Set<Class<?>> expected = new HashSet<>();
+        expected.add(ScannedService.class);
+        expected.add(ScannedService.StaticNested.class);
+        assertEquals(expected, classes);
+    }
+    
+    @Test
+    void innerLocalAndAnonymousClassesAreNotInstantiable() {
+        class Local {
+        }
+        assertTrue(ClassScanner.isInstantiable(ScannedService.class));
+        assertTrue(ClassScanner.isInstantiable(ScannedService.StaticNested.class));
+        assertFalse(ClassScanner.isInstantiable(ScannedService.Inner.class));
+        assertFalse(ClassScanner.isInstantiable(Local.class));
+        assertFalse(ClassScanner.isInstantiable(new ScannedService().anonymous().getClass()));
+    }
+    
+    @Test
+    void readsTheIndexOfEveryModuleMergedInAFatJar() throws Exception {
+        Path jar = Files.createTempFile("easy-api-fat", ".jar");
+        try {
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+                for (String directory : new String[]{"omm/", "omm/mtk/", "omm/mtk/easy/", "omm/mtk/easy/api/", "omm/mtk/easy/api/core/",
+                        "omm/mtk/easy/api/core/fixtures/", "omm/mtk/easy/api/core/fixtures/scan/", "META-INF/", "META-INF/easy-api/"}) {
+                    out.putNextEntry(new JarEntry(directory));
+                }
+                copyClass(out, ScannedService.class);
+                copyClass(out, ScannedService.StaticNested.class);
+                // Un index par module, comme les écrit EasyApiProcessor
+                write(out, "META-INF/easy-api/components-omm.mtk.easy.api.core.fixtures.scan.idx", ScannedService.class.getName());
+                write(out, "META-INF/easy-api/components-omm.mtk.easy.api.core.fixtures.idx", ScannedService.StaticNested.class.getName());
+            }
+            
+            ClassLoader previous = Thread.currentThread().getContextClassLoader();
+            // Sans parent : seul le jar fournit le package scanné
+            try (URLClassLoader loader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+                Thread.currentThread().setContextClassLoader(loader);
+                Set<String> names = ClassScanner.findClasses("omm.mtk.easy.api.core.fixtures.scan").stream()
+                        .map(Class::getName)
+                        .collect(Collectors.toSet());
+                
+                Set<String> expected = new HashSet<>();
+                expected.add(ScannedService.class.getName());
+                expected.add(ScannedService.StaticNested.class.getName());
+                assertEquals(expected, names);
+            } finally {
+                Thread.currentThread().setContextClassLoader(previous);
+            }
+        } finally {
+            Files.delete(jar);
+        }
+    }
+    
+    @Test
+    void recognizesPerModuleAndLegacyIndexNames() {
+        assertTrue(ClassScanner.isComponentIndex("META-INF/easy-api/components.idx"));
+        assertTrue(ClassScanner.isComponentIndex("META-INF/easy-api/components-com.acme.idx"));
+        assertFalse(ClassScanner.isComponentIndex("META-INF/easy-api/other/components-com.acme.idx"));
+        assertFalse(ClassScanner.isComponentIndex("META-INF/easy-api/components-com.acme.txt"));
+    }
+    
+    private static void copyClass(JarOutputStream out, Class<?> clazz) throws IOException {
+        String name = clazz.getName().replace('.', '/') + ".class";
+        out.putNextEntry(new JarEntry(name));
+        try (InputStream in = ClassScannerTest.class.getClassLoader().getResourceAsStream(name)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+    
+    private static void write(JarOutputStream out, String name, String content) throws IOException {
+        out.putNextEntry(new JarEntry(name));
+        out.write((content + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,76 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalRequestsTest {
+    private static final String ETAG = "\"abc\"";
+    private static final long MODIFIED = 1_700_000_000_000L;
+    
+    private static HttpServerRequest request(HttpMethod method, String... headers) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            values.put(headers[i], headers[i + 1]);
+        }
+        return (HttpServerRequest) Proxy.newProxyInstance(ConditionalRequestsTest.class.getClassLoader(),
+                new Class<?>[]{HttpServerRequest.class}, (proxy, m, args) -> {
+                    if (m.getName().equals("method")) {
+                        return method;
+                    }
+                    if (m.getName().equals("getHeader") && args[0] instanceof String) {
+                        return values.get(args[0]);
+                    }
+                    return null;
+                });
+    }
+    
+    @Test
+    void matchesIfNoneMatchListWeaklyAndWildcard() {
+        assertTrue(ConditionalRequests.isNotModified(request(HttpMethod.GET, "If-None-Match", ETAG), ETAG, -1));
+        assertTrue(ConditionalRequests.isNotModified(request(HttpMethod.GET, "If-None-Match", "\"x\", W/\"abc\""), ETAG, -1));
+        assertTrue(ConditionalRequests.isNotModified(request(HttpMethod.GET, "If-None-Match", "W/\"abc\""), "W/\"abc\"", -1));
+        assertTrue(ConditionalRequests.isNotModified(request(HttpMethod.GET, "If-None-Match", "*"), ETAG, -1));
+        assertFalse(ConditionalRequests.isNotModified(request(HttpMethod.GET, "If-None-Match", "\"x\", \"y\""), ETAG, -1));
+        assertFalse(ConditionalRequests.isNotModified(request(HttpMethod.GET, "If-None-Match", ETAG), null, MODIFIED));
+    }
+    
+    @Test
+    void ifNoneMatchTakesPrecedenceOverIfModifiedSince() {
+        String since = ConditionalRequests.httpDate(MODIFIED);
+        assertFalse(ConditionalRequests.isNotModified(
+                request(HttpMethod.GET, "If-None-Match", "\"other\"", "If-Modified-Since", since), ETAG, MODIFIED));
+    }
+    
+    @Test
+    void comparesIfModifiedSinceToTheSecond() {
+        String since = ConditionalRequests.httpDate(MODIFIED);
+        assertTrue(ConditionalRequests.isNotModified(request(HttpMethod.GET, "If-Modified-Since", since), null, MODIFIED + 999));
+        assertFalse(ConditionalRequests.isNotModified(request(HttpMethod.GET, "If-Modified-Since", since), null, MODIFIED + 1000));
+        assertFalse(ConditionalRequests.isNotModified(request(HttpMethod.GET, "If-Modified-Since", "yesterday"), null, MODIFIED));
+        assertFalse(ConditionalRequests.isNotModified(request(HttpMethod.GET, "If-Modified-Since", since), null, -1));
+    }
+    
+    @Test
+    void onlyGetRequestsAreConditional() {
+        HttpServerRequest post = request(HttpMethod.POST, "If-None-Match", ETAG);
+        assertFalse(ConditionalRequests.isConditional(post));
+        assertFalse(ConditionalRequests.isNotModified(post, ETAG, -1));
+        assertTrue(ConditionalRequests.isConditional(request(HttpMethod.GET, "If-None-Match", ETAG)));
+    }
+    
+    @Test
+    void strongETagIsA128BitDigestOfTheBody() {
+        String eTag = ConditionalRequests.strongETag(Buffer.buffer("{\"id\":1}"));
+        assertTrue(eTag.matches("\"[A-Za-z0-9_-]{22}\""), eTag);
+        assertEquals(eTag, ConditionalRequests.strongETag(Buffer.buffer("{\"id\":1}")));
+        assertNotEquals(eTag, ConditionalRequests.strongETag(Buffer.buffer("{\"id\":2}")));
+    }
+}
@@ -0,0 +1,67 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.json.JsonObject;
+import omm.mtk.easy.api.annotation.Scope;
+import omm.mtk.easy.api.core.fixtures.lookup.Clock;
+import omm.mtk.easy.api.core.fixtures.lookup.EnglishGreeter;
+import omm.mtk.easy.api.core.fixtures.lookup.Greeter;
+import omm.mtk.easy.api.core.fixtures.lookup.SystemClock;
+import omm.mtk.easy.api.core.fixtures.properties.GreetingProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EasyApplicationContextTest {
+    private static final String PACKAGE = "omm.mtk.easy.api.core.fixtures.properties";
+    private static final String LOOKUP_PACKAGE = "omm.mtk.easy.api.core.fixtures.lookup";
+    
+    @Test
+    void bindsConfigurationPropertiesWhenLoadingItsOwnProperties() {
+        EasyApplicationContext context = new EasyApplicationContext(null, PACKAGE);
+        
+        GreetingProperties greeting = context.getBean(GreetingProperties.class);
+        assertEquals("hello", greeting.getMessage());
+        assertEquals(42, greeting.getMaxLength());
+        assertEquals(3, context.getBean(ServerProperties.class).getInstances());
+        assertTrue(context.getStartupReport().getPhaseNanos().containsKey(StartupReport.PROPERTIES));
+    }
+    
+    @Test
+    void bindsPreloadedPropertiesAndReportsThem() {
+        JsonObject properties = EasyApplicationContext.loadApplicationProperties();
+        EasyApplicationContext context = new EasyApplicationContext(null, properties, PACKAGE);
+        
+        assertEquals("hello", context.getBean(GreetingProperties.class).getMessage());
+        assertEquals(3, context.getBean(ServerProperties.class).getInstances());
+        StartupReport report = context.getStartupReport();
+        assertFalse(report.getPhaseNanos().containsKey(StartupReport.PROPERTIES));
+        assertTrue(report.getPreloadedPhases().contains(StartupReport.PROPERTIES));
+        assertTrue(report.toString().contains("properties preloaded"));
+    }
+    
+    @Test
+    void typeLookupReturnsNothingWhenSeveralBeansMatchWithoutPrimary() {
+        EasyApplicationContext context = new EasyApplicationContext(null, LOOKUP_PACKAGE);
+        
+        assertNull(context.getBean(Greeter.class));
+        assertNull(context.getBean(Serializable.class));
+        assertNull(context.getBeanScope(Greeter.class));
+        assertThrows(IllegalStateException.class, () -> context.leaseBean(Greeter.class));
+        assertEquals(2, context.getBeansOfType(Greeter.class).size());
+        
+        assertTrue(context.getBean(Clock.class) instanceof SystemClock);
+        assertTrue(context.getBean(EnglishGreeter.class) instanceof EnglishGreeter);
+        assertEquals(Scope.SINGLETON, context.getBeanScope(Clock.class));
+    }
+    
+    @Test
+    void objectIsNotIndexedAsABeanType() {
+        EasyApplicationContext context = new EasyApplicationContext(null, LOOKUP_PACKAGE);
+        
+        assertNull(context.getBean(Object.class));
+        assertNull(context.getBeanScope(Object.class));
+        assertTrue(context.getBeansOfType(Object.class).containsKey("systemClock"));
+    }
+}
@@ -0,0 +1,92 @@
+package omm.mtk.easy.api.core;
+
+import omm.mtk.easy.api.annotation.ExceptionHandler;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExceptionHandlerRegistryTest {
+    
+    public static class GeneralAdvice {
+        @ExceptionHandler(RuntimeException.class)
+        public String runtime(RuntimeException e) {
+            return "runtime";
+        }
+        
+        @ExceptionHandler
+        public String io(IOException e) {
+            return "io:" + e.getMessage();
+        }
+    }
+    
+    public static class SpecificAdvice {
+        @ExceptionHandler({IllegalArgumentException.class, UncheckedIOException.class})
+        public String specific(RuntimeException e) {
+            return "specific";
+        }
+    }
+    
+    public static class ConflictingAdvice {
+        @ExceptionHandler(IllegalStateException.class)
+        public String first(IllegalStateException e) {
+            return "first";
+        }
+        
+        @ExceptionHandler
+        public String second(IllegalStateException e) {
+            return "second";
+        }
+    }
+    
+    public static class OtherRuntimeAdvice {
+        @ExceptionHandler(RuntimeException.class)
+        public String runtime(RuntimeException e) {
+            return "other";
+        }
+    }
+    
+    private static ExceptionHandlerRegistry registry(Object... advices) {
+        ExceptionHandlerRegistry registry = new ExceptionHandlerRegistry();
+        for (Object advice : advices) {
+            registry.register(advice);
+        }
+        return registry;
+    }
+    
+    @Test
+    void resolvesTheClosestSuperclassHandler() throws Exception {
+        ExceptionHandlerRegistry registry = registry(new GeneralAdvice(), new SpecificAdvice());
+        
+        assertEquals("specific", registry.resolve(IllegalArgumentException.class).getMethod().getName());
+        assertEquals("specific", registry.resolve(NumberFormatException.class).getMethod().getName());
+        assertEquals("runtime", registry.resolve(IllegalStateException.class).getMethod().getName());
+        assertEquals("io", registry.resolve(FileNotFoundException.class).getMethod().getName());
+        assertNull(registry.resolve(Exception.class));
+        assertNull(registry.resolve(Error.class));
+    }
+    
+    @Test
+    void invokesTheHandlerWithTheException() throws Exception {
+        ExceptionHandlerRegistry registry = registry(new GeneralAdvice());
+        FileNotFoundException exception = new FileNotFoundException("missing");
+        assertEquals("io:missing", registry.resolve(FileNotFoundException.class).invoke(exception, null));
+    }
+    
+    @Test
+    void failsOnTwoHandlersForTheSameTypeInOneAdvice() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> registry(new ConflictingAdvice()));
+        assertTrue(e.getMessage().contains(IllegalStateException.class.getName()), e.getMessage());
+    }
+    
+    @Test
+    void failsOnTwoAdvicesHandlingTheSameType() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> registry(new GeneralAdvice(), new OtherRuntimeAdvice()));
+        assertTrue(e.getMessage().contains(GeneralAdvice.class.getName()), e.getMessage());
+        assertTrue(e.getMessage().contains(OtherRuntimeAdvice.class.getName()), e.getMessage());
+    }
+}
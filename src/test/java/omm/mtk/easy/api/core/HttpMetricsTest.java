@@ -0,0 +1,88 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.http.HttpMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpMetricsTest {
+    private static final String LABELS = "{method=\"GET\",route=\"/say/\\\"hi\\\"\\\\\"";
+    
+    private static RouteDefinition route(String path) throws NoSuchMethodException {
+        return new RouteDefinition(HttpMethod.GET, path, Object.class.getMethod("toString"), null,
+                new ParameterResolver[0], null, null, RouteDefinition.BodyMode.NONE, 0, null);
+    }
+    
+    private static void assertLine(String scrape, String line) {
+        assertTrue(scrape.contains("\n" + line + "\n"), "missing line: " + line + "\n" + scrape);
+    }
+    
+    @Test
+    void rendersCountersAndCumulativeHistogram() throws Exception {
+        RouteDefinition route = route("/say/\"hi\"\\");
+        HttpMetrics metrics = new HttpMetrics(Collections.singletonList(route), null);
+        RouteMetrics routeMetrics = metrics.forRoute(route);
+        routeMetrics.record(200, 400_000L);
+        routeMetrics.record(200, 3_000_000L);
+        routeMetrics.record(404, 20_000_000_000L);
+        routeMetrics.recordError();
+        
+        String scrape = metrics.scrape();
+        
+        assertLine(scrape, "# TYPE easy_http_server_requests_total counter");
+        assertLine(scrape, "easy_http_server_requests_total" + LABELS + ",status=\"200\"} 2");
+        assertLine(scrape, "easy_http_server_requests_total" + LABELS + ",status=\"404\"} 1");
+        assertFalse(scrape.contains("status=\"500\""));
+        assertLine(scrape, "easy_http_server_errors_total" + LABELS + "} 1");
+        assertLine(scrape, "# TYPE easy_http_server_request_duration_seconds histogram");
+        assertLine(scrape, "easy_http_server_request_duration_seconds_bucket" + LABELS + ",le=\"0.0005\"} 1");
+        assertLine(scrape, "easy_http_server_request_duration_seconds_bucket" + LABELS + ",le=\"0.0025\"} 1");
+        assertLine(scrape, "easy_http_server_request_duration_seconds_bucket" + LABELS + ",le=\"0.005\"} 2");
+        assertLine(scrape, "easy_http_server_request_duration_seconds_bucket" + LABELS + ",le=\"10.0\"} 2");
+        assertLine(scrape, "easy_http_server_request_duration_seconds_bucket" + LABELS + ",le=\"+Inf\"} 3");
+        assertLine(scrape, "easy_http_server_request_duration_seconds_sum" + LABELS + "} 20.0034");
+        assertLine(scrape, "easy_http_server_request_duration_seconds_count" + LABELS + "} 3");
+        assertFalse(scrape.contains("easy_http_server_phase_seconds"));
+    }
+    
+    @Test
+    void everySampleLineHasLabelsAndANumericValue() throws Exception {
+        List<RouteDefinition> routes = Arrays.asList(route("/a"), route("/b/{id}"));
+        HttpMetrics metrics = new HttpMetrics(routes, new ServerTiming(routes));
+        metrics.forRoute(routes.get(1)).record(201, 1_000_000L);
+        
+        // record() sans start() : la jauge des requêtes en cours passe à -1
+        String scrape = metrics.scrape();
+        
+        assertTrue(scrape.endsWith("\n"));
+        for (String line : scrape.split("\n")) {
+            if (!line.startsWith("#")) {
+                assertTrue(line.matches("[a-z_]+\\{method=\"GET\",route=\"[^\"]*\"(,[a-z]+=\"[^\"]*\")?} -?[0-9.]+"), line);
+            }
+        }
+    }
+    
+    @Test
+    void rendersPhaseSummariesWhenServerTimingIsEnabled() throws Exception {
+        RouteDefinition route = route("/a");
+        ServerTiming serverTiming = new ServerTiming(Collections.singletonList(route));
+        HttpMetrics metrics = new HttpMetrics(Collections.singletonList(route), serverTiming);
+        ServerTiming.Timer timer = new ServerTiming.Timer();
+        timer.begin(ServerTiming.BIND);
+        timer.begin(ServerTiming.INVOKE);
+        timer.end();
+        serverTiming.forRoute(route).record(timer);
+        
+        String scrape = metrics.scrape();
+        
+        assertLine(scrape, "# TYPE easy_http_server_phase_seconds summary");
+        assertLine(scrape, "easy_http_server_phase_seconds_count{method=\"GET\",route=\"/a\",phase=\"bind\"} 1");
+        assertLine(scrape, "easy_http_server_phase_seconds_count{method=\"GET\",route=\"/a\",phase=\"invoke\"} 1");
+        assertLine(scrape, "easy_http_server_phase_seconds_count{method=\"GET\",route=\"/a\",phase=\"error\"} 0");
+        assertLine(scrape, "easy_http_server_phase_seconds_sum{method=\"GET\",route=\"/a\",phase=\"error\"} 0.0");
+    }
+}
@@ -0,0 +1,61 @@
+package omm.mtk.easy.api.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodInvokerTest {
+    
+    @SuppressWarnings("unused")
+    static class Controller {
+        String repeat(String text, int times) {
+            StringBuilder out = new StringBuilder();
+            for (int i = 0; i < times; i++) {
+                out.append(text);
+            }
+            return out.toString();
+        }
+        
+        Object echo(Object value) {
+            return value;
+        }
+        
+        void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+    }
+    
+    private static MethodInvoker invoker(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return MethodInvoker.compile(new Controller(), Controller.class.getDeclaredMethod(name, parameterTypes));
+    }
+    
+    @Test
+    void invokesTargetWithBoxedArguments() throws Exception {
+        assertEquals("abab", invoker("repeat", String.class, int.class).invoke(new Object[]{"ab", 2}));
+        assertNull(invoker("echo", Object.class).invoke(new Object[]{null}));
+        assertEquals(7L, invoker("echo", Object.class).invoke(new Object[]{7L}));
+    }
+    
+    @Test
+    void rejectsIncompatibleArgumentsBeforeTheCall() throws Exception {
+        MethodInvoker repeat = invoker("repeat", String.class, int.class);
+        
+        // @RequestBody int avec un corps vide : null pour un primitif
+        assertThrows(IllegalArgumentException.class, () -> repeat.invoke(new Object[]{"ab", null}));
+        assertThrows(IllegalArgumentException.class, () -> repeat.invoke(new Object[]{"ab", "2"}));
+        assertThrows(IllegalArgumentException.class, () -> repeat.invoke(new Object[]{42, 2}));
+        assertThrows(IllegalArgumentException.class, () -> repeat.invoke(new Object[]{"ab"}));
+        assertThrows(IllegalArgumentException.class, () -> repeat.invoke(null));
+    }
+    
+    @Test
+    void wrapsOnlyExceptionsThrownByTheTarget() throws Exception {
+        InvocationTargetException e = assertThrows(InvocationTargetException.class,
+                () -> invoker("fail", String.class).invoke(new Object[]{"boom"}));
+        
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertEquals("boom", e.getCause().getMessage());
+    }
+}
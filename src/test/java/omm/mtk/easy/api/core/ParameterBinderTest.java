@@ -0,0 +1,217 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
+import omm.mtk.easy.api.annotation.PathVariable;
+import omm.mtk.easy.api.annotation.RequestBody;
+import omm.mtk.easy.api.annotation.RequestHeader;
+import omm.mtk.easy.api.annotation.RequestParam;
+import omm.mtk.easy.api.core.fixtures.lookup.FrenchGreeter;
+import omm.mtk.easy.api.core.fixtures.lookup.Greeter;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParameterBinderTest {
+    
+    @SuppressWarnings("unused")
+    static class Controller {
+        void numbers(@PathVariable("id") long id, @RequestParam("page") int page, @RequestParam("ratio") Double ratio,
+                     @RequestParam("exact") boolean exact, @RequestParam("scale") float scale) {
+        }
+        
+        void defaults(@RequestParam(value = "size", defaultValue = "20") int size,
+                      @RequestParam(value = "q", required = false) String query,
+                      @RequestParam(value = "debug", required = false) boolean debug,
+                      @RequestHeader("X-Retries") int retries, @RequestHeader("X-Tenant") String tenant) {
+        }
+        
+        void required(@RequestParam("page") Integer page) {
+        }
+        
+        void unsupported(@RequestParam("when") Date when) {
+        }
+        
+        void rawBody(@RequestBody String body, RoutingContext ctx, Runnable unknown) {
+        }
+        
+        void jsonBody(@RequestBody Map<String, Object> body) {
+        }
+        
+        void beans(FrenchGreeter prototype, Greeter ambiguous, Cloneable jdkType, Object object) {
+        }
+    }
+    
+    private static final JsonCodec CODEC = new JsonCodec() {
+        @Override
+        public Buffer encode(Object value) {
+            throw new UnsupportedOperationException();
+        }
+        
+        @Override
+        public <T> T decode(Buffer body, Class<T> type) {
+            if (!body.toString().startsWith("{")) {
+                throw new IllegalArgumentException("not an object");
+            }
+            return type.cast(new HashMap<>());
+        }
+    };
+    
+    private ParameterBinder binder = new ParameterBinder(CODEC, 1024);
+    private final Map<String, String> params = new HashMap<>();
+    private final Map<String, String> pathParams = new HashMap<>();
+    private final Map<String, String> headers = new HashMap<>();
+    private Buffer body;
+    
+    private RoutingContext context() {
+        ClassLoader loader = ParameterBinderTest.class.getClassLoader();
+        HttpServerRequest request = (HttpServerRequest) Proxy.newProxyInstance(loader,
+                new Class<?>[]{HttpServerRequest.class}, (proxy, m, args) -> {
+                    if (m.getName().equals("getParam")) {
+                        return params.get(args[0]);
+                    }
+                    if (m.getName().equals("getHeader") && args[0] instanceof String) {
+                        return headers.get(args[0]);
+                    }
+                    return null;
+                });
+        return (RoutingContext) Proxy.newProxyInstance(loader, new Class<?>[]{RoutingContext.class}, (proxy, m, args) -> {
+            switch (m.getName()) {
+                case "request":
+                    return request;
+                case "pathParam":
+                    return pathParams.get(args[0]);
+                case "getBody":
+                    return body;
+                default:
+                    return null;
+            }
+        });
+    }
+    
+    private Object[] resolve(String methodName) {
+        Method method = null;
+        for (Method candidate : Controller.class.getDeclaredMethods()) {
+            if (candidate.getName().equals(methodName)) {
+                method = candidate;
+            }
+        }
+        assertNotNull(method, methodName);
+        RoutingContext ctx = context();
+        ParameterResolver[] resolvers = binder.bind(method);
+        Object[] args = new Object[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(ctx);
+        }
+        return args;
+    }
+    
+    @Test
+    void convertsPathVariablesAndParametersToDeclaredTypes() {
+        pathParams.put("id", "9000000000");
+        params.put("page", "3");
+        params.put("ratio", "0.5");
+        params.put("exact", "TRUE");
+        params.put("scale", "1.5");
+        
+        Object[] args = resolve("numbers");
+        
+        assertEquals(9_000_000_000L, args[0]);
+        assertEquals(3, args[1]);
+        assertEquals(0.5, args[2]);
+        assertEquals(true, args[3]);
+        assertEquals(1.5f, args[4]);
+    }
+    
+    @Test
+    void appliesDefaultsForMissingOptionalValues() {
+        Object[] args = resolve("defaults");
+        
+        assertEquals(20, args[0]);
+        assertNull(args[1]);
+        assertEquals(false, args[2]);
+        assertEquals(0, args[3]);
+        assertNull(args[4]);
+        
+        params.put("size", "5");
+        headers.put("X-Retries", "2");
+        headers.put("X-Tenant", "acme");
+        args = resolve("defaults");
+        assertEquals(5, args[0]);
+        assertEquals(2, args[3]);
+        assertEquals("acme", args[4]);
+    }
+    
+    @Test
+    void rejectsMissingRequiredAndMalformedValues() {
+        RuntimeException missing = assertThrows(RuntimeException.class, () -> resolve("required"));
+        assertEquals("Required parameter 'page' is missing", missing.getMessage());
+        
+        params.put("page", "three");
+        assertThrows(NumberFormatException.class, () -> resolve("required"));
+        
+        params.put("when", "2024-01-01");
+        RuntimeException unsupported = assertThrows(RuntimeException.class, () -> resolve("unsupported"));
+        assertEquals("Unsupported parameter type: java.util.Date", unsupported.getMessage());
+        
+        RuntimeException noPathVariable = assertThrows(RuntimeException.class, () -> resolve("numbers"));
+        assertEquals("Path variable 'id' not found", noPathVariable.getMessage());
+    }
+    
+    @Test
+    void readsRawBodyAndInjectsContext() {
+        body = Buffer.buffer("plain text");
+        
+        Object[] args = resolve("rawBody");
+        
+        assertEquals("plain text", args[0]);
+        assertTrue(args[1] instanceof RoutingContext);
+        assertNull(args[2]);
+    }
+    
+    @Test
+    void decodesJsonBodyAndTreatsBlankBodyAsNull() {
+        body = Buffer.buffer("{\"a\":1}");
+        assertEquals(new HashMap<>(), resolve("jsonBody")[0]);
+        
+        body = Buffer.buffer(" \r\n\t");
+        assertNull(resolve("jsonBody")[0]);
+        
+        body = Buffer.buffer("[1]");
+        RuntimeException e = assertThrows(RuntimeException.class, () -> resolve("jsonBody"));
+        assertEquals("Failed to parse request body", e.getMessage());
+    }
+    
+    @Test
+    void choosesBodyModeAndLimitPerMethod() throws Exception {
+        Method rawBody = Controller.class.getDeclaredMethod("rawBody", String.class, RoutingContext.class, Runnable.class);
+        Method defaults = Controller.class.getDeclaredMethod("defaults", int.class, String.class, boolean.class, int.class, String.class);
+        
+        assertEquals(RouteDefinition.BodyMode.BUFFERED, binder.bodyMode(rawBody, HttpMethod.POST));
+        assertEquals(RouteDefinition.BodyMode.BUFFERED, binder.bodyMode(defaults, HttpMethod.POST));
+        assertEquals(RouteDefinition.BodyMode.NONE, binder.bodyMode(defaults, HttpMethod.GET));
+        assertEquals(1024, binder.bodyLimit(rawBody));
+    }
+    
+    @Test
+    void injectsPrototypeBeansOnlyForUnambiguousApplicationTypes() {
+        binder = new ParameterBinder(CODEC, 1024, new EasyApplicationContext(null, "omm.mtk.easy.api.core.fixtures.lookup"));
+        
+        Object[] args = resolve("beans");
+        
+        assertTrue(args[0] instanceof FrenchGreeter);
+        assertNotSame(args[0], resolve("beans")[0]);
+        assertNull(args[1]);
+        // FrenchGreeter est le seul bean Cloneable, mais un type du JDK ne désigne pas de bean
+        assertNull(args[2]);
+        assertNull(args[3]);
+    }
+}
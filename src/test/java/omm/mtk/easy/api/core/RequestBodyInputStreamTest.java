@@ -0,0 +1,147 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestBodyInputStreamTest {
+    private final ExecutorService eventLoop = Executors.newSingleThreadExecutor();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    
+    @AfterEach
+    void shutdown() {
+        eventLoop.shutdownNow();
+        worker.shutdownNow();
+    }
+    
+    @Test
+    void readsWholeBodyAcrossManyPausesWithoutStalling() throws Exception {
+        for (int run = 0; run < 20; run++) {
+            FakeRequest request = new FakeRequest(16 * 1024, 2048);
+            InputStream body = open(request, -1, e -> fail("limit must not trip"));
+            request.start();
+            
+            Future<Long> read = worker.submit(() -> drain(body));
+            assertEquals(16L * 1024 * 2048, (long) read.get(10, TimeUnit.SECONDS), "run " + run);
+            assertTrue(request.pauses.get() > 0, "the request should have been paused at least once");
+        }
+    }
+    
+    @Test
+    void stopsReadingAndNotifiesOnceWhenLimitIsExceeded() throws Exception {
+        FakeRequest request = new FakeRequest(16 * 1024, 64);
+        AtomicInteger limitCalls = new AtomicInteger();
+        InputStream body = open(request, 100 * 1024, e -> limitCalls.incrementAndGet());
+        request.start();
+        
+        Future<Long> read = worker.submit(() -> drain(body));
+        Exception failure = assertThrows(Exception.class, () -> read.get(10, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof PayloadTooLargeException, String.valueOf(failure.getCause()));
+        eventLoop.submit(() -> { }).get();
+        assertEquals(1, limitCalls.get());
+        assertTrue(request.paused, "the request must stay paused once the limit is exceeded");
+        assertTrue(request.delivered < 64, "delivery should stop at the limit");
+    }
+    
+    private InputStream open(FakeRequest request, long maxSize, Handler<PayloadTooLargeException> limitHandler)
+            throws Exception {
+        Context context = (Context) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Context.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("runOnContext")) {
+                        @SuppressWarnings("unchecked")
+                        Handler<Void> action = (Handler<Void>) args[0];
+                        eventLoop.execute(() -> action.handle(null));
+                    }
+                    return null;
+                });
+        return eventLoop.submit(() -> new RequestBodyInputStream(request.proxy, maxSize, limitHandler, context)).get();
+    }
+    
+    private static long drain(InputStream body) throws IOException {
+        byte[] chunk = new byte[8192];
+        long total = 0;
+        for (int n; (n = body.read(chunk)) != -1; ) {
+            total += n;
+        }
+        return total;
+    }
+    
+    /**
+     * Requête simulée : un buffer livré par tâche de l'event loop tant qu'elle n'est pas en pause,
+     * comme le fait Vert.x, pour laisser le worker consommer entre deux livraisons.
+     */
+    private class FakeRequest {
+        private final int chunkSize;
+        private final int chunks;
+        private final AtomicInteger pauses = new AtomicInteger();
+        private volatile boolean paused;
+        private volatile int delivered;
+        private Handler<Buffer> handler;
+        private Handler<Void> endHandler;
+        private final HttpServerRequest proxy;
+        
+        FakeRequest(int chunkSize, int chunks) {
+            this.chunkSize = chunkSize;
+            this.chunks = chunks;
+            this.proxy = (HttpServerRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{HttpServerRequest.class}, (self, method, args) -> {
+                        switch (method.getName()) {
+                            case "handler":
+                                handler = cast(args[0]);
+                                break;
+                            case "endHandler":
+                                endHandler = cast(args[0]);
+                                break;
+                            case "pause":
+                                paused = true;
+                                pauses.incrementAndGet();
+                                break;
+                            case "resume":
+                                paused = false;
+                                eventLoop.execute(this::deliver);
+                                break;
+                            default:
+                                break;
+                        }
+                        return method.getReturnType().isInstance(self) ? self : null;
+                    });
+        }
+        
+        void start() {
+            eventLoop.execute(this::deliver);
+        }
+        
+        private void deliver() {
+            if (paused || delivered > chunks) {
+                return;
+            }
+            if (delivered == chunks) {
+                delivered++;
+                endHandler.handle(null);
+                return;
+            }
+            delivered++;
+            handler.handle(Buffer.buffer(new byte[chunkSize]));
+            eventLoop.execute(this::deliver);
+        }
+        
+        @SuppressWarnings("unchecked")
+        private <T> Handler<T> cast(Object handler) {
+            return (Handler<T>) handler;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+    private static final String[] NONE = new String[0];
+    
+    private static ResponseCache cache(long ttlSeconds, int maxEntries) {
+        return new ResponseCache("test", ttlSeconds, maxEntries, NONE, NONE, false);
+    }
+    
+    private static EncodedResponse response(String body) {
+        return new EncodedResponse(200, Collections.emptyMap(), "text/plain", Buffer.buffer(body), null, -1);
+    }
+    
+    private static String key(String path) {
+        return path + '\u0000';
+    }
+    
+    private static void put(ResponseCache cache, String key, String body) {
+        cache.put(cache.ticket(key), response(body));
+    }
+    
+    @Test
+    void returnsCachedResponseAndCountsHitsAndMisses() {
+        ResponseCache cache = cache(60, 10);
+        assertNull(cache.get(key("/a")));
+        EncodedResponse response = response("a");
+        cache.put(cache.ticket(key("/a")), response);
+        
+        assertSame(response, cache.get(key("/a")));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+    
+    @Test
+    void expiredEntriesAreNotReturned() {
+        ResponseCache cache = cache(0, 10);
+        put(cache, key("/a"), "a");
+        assertNull(cache.get(key("/a")));
+        assertEquals(0, cache.size());
+    }
+    
+    @Test
+    void invalidateRemovesEveryVariantOfThePathOnly() {
+        ResponseCache cache = cache(60, 10);
+        put(cache, key("/items") + "page=1\u0000", "p1");
+        put(cache, key("/items") + "page=2\u0000", "p2");
+        put(cache, key("/items/1"), "one");
+        
+        cache.invalidate("/items");
+        
+        assertEquals(1, cache.size());
+        assertNull(cache.get(key("/items") + "page=1\u0000"));
+        assertNotNull(cache.get(key("/items/1")));
+    }
+    
+    @Test
+    void responseComputedBeforeInvalidationIsNotCached() {
+        ResponseCache cache = cache(60, 10);
+        ResponseCache.Ticket ticket = cache.ticket(key("/a"));
+        cache.invalidate("/a");
+        cache.put(ticket, response("stale"));
+        assertNull(cache.get(key("/a")));
+        
+        ticket = cache.ticket(key("/a"));
+        cache.invalidateAll();
+        cache.put(ticket, response("stale"));
+        assertEquals(0, cache.size());
+    }
+    
+    @Test
+    void rejectsOneHitKeysWhenFullAndAdmitsFrequentOnes() {
+        ResponseCache cache = cache(60, 100);
+        for (int i = 0; i < 100; i++) {
+            String key = key("/hot/" + i);
+            for (int hit = 0; hit < 3; hit++) {
+                cache.get(key);
+            }
+            put(cache, key, "hot");
+        }
+        
+        String oneHit = key("/cold");
+        cache.get(oneHit);
+        put(cache, oneHit, "cold");
+        assertNull(cache.get(oneHit));
+        assertEquals(1, cache.getRejections());
+        
+        String frequent = key("/frequent");
+        for (int hit = 0; hit < 10; hit++) {
+            cache.get(frequent);
+        }
+        put(cache, frequent, "frequent");
+        assertNotNull(cache.get(frequent));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(100, cache.size());
+    }
+    
+    @Test
+    void neverExceedsMaxEntriesUnderConcurrentWrites() throws Exception {
+        ResponseCache cache = cache(60, 64);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        String key = key("/" + thread + "/" + (i % 500));
+                        cache.get(key);
+                        put(cache, key, "x");
+                        if (i % 1000 == 0) {
+                            cache.invalidate("/" + thread + "/" + i % 500);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(cache.size() <= 64, "size " + cache.size());
+        assertTrue(cache.size() > 0);
+    }
+}
@@ -0,0 +1,104 @@
+package omm.mtk.easy.api.core;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetSocket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.ConnectException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerOptionsFactoryTest {
+    private Path directory;
+    // Ni fichier ordinaire ni répertoire, comme une socket : un lien vers /dev/null
+    private Path socket;
+    
+    @BeforeEach
+    void createSocketFile() throws IOException {
+        directory = Files.createTempDirectory("easy-api-socket");
+        socket = Files.createSymbolicLink(directory.resolve("app.sock"), Paths.get("/dev/null"));
+    }
+    
+    @AfterEach
+    void deleteSocketFile() throws IOException {
+        Files.deleteIfExists(socket);
+        Files.deleteIfExists(directory);
+    }
+    
+    /**
+     * Vert.x dont le client TCP répond à {@code connect} avec {@code outcome}.
+     */
+    @SuppressWarnings("unchecked")
+    private static Vertx vertxConnecting(AsyncResult<NetSocket> outcome) {
+        NetSocket netSocket = (NetSocket) Proxy.newProxyInstance(ServerOptionsFactoryTest.class.getClassLoader(),
+                new Class<?>[]{NetSocket.class}, (proxy, m, args) -> null);
+        NetClient client = (NetClient) Proxy.newProxyInstance(ServerOptionsFactoryTest.class.getClassLoader(),
+                new Class<?>[]{NetClient.class}, (proxy, m, args) -> {
+                    if (m.getName().equals("connect")) {
+                        Handler<AsyncResult<NetSocket>> handler = (Handler<AsyncResult<NetSocket>>) args[args.length - 1];
+                        handler.handle(outcome.succeeded() ? Future.succeededFuture(netSocket) : outcome);
+                        return proxy;
+                    }
+                    return null;
+                });
+        return (Vertx) Proxy.newProxyInstance(ServerOptionsFactoryTest.class.getClassLoader(),
+                new Class<?>[]{Vertx.class}, (proxy, m, args) -> m.getName().equals("createNetClient") ? client : null);
+    }
+    
+    private static AsyncResult<Void> release(Vertx vertx, Path socket) {
+        AtomicReference<AsyncResult<Void>> result = new AtomicReference<>();
+        ServerOptionsFactory.releaseStaleSocket(vertx, socket.toString(), result::set);
+        assertNotNull(result.get());
+        return result.get();
+    }
+    
+    @Test
+    void deletesSocketWhenConnectionIsRefused() {
+        Vertx vertx = vertxConnecting(Future.failedFuture(new ConnectException("connect(..) failed: Connection refused")));
+        
+        assertTrue(release(vertx, socket).succeeded());
+        assertFalse(Files.exists(socket, LinkOption.NOFOLLOW_LINKS));
+    }
+    
+    @Test
+    void keepsSocketServedByAnotherProcess() {
+        AsyncResult<Void> result = release(vertxConnecting(Future.succeededFuture()), socket);
+        
+        assertTrue(result.failed());
+        assertTrue(result.cause().getMessage().contains("in use"));
+        assertTrue(Files.exists(socket, LinkOption.NOFOLLOW_LINKS));
+    }
+    
+    @Test
+    void keepsSocketWhenConnectFailsForAnotherReason() {
+        Vertx vertx = vertxConnecting(Future.failedFuture(new ConnectException("connect(..) failed: Permission denied")));
+        
+        assertTrue(release(vertx, socket).failed());
+        assertTrue(Files.exists(socket, LinkOption.NOFOLLOW_LINKS));
+    }
+    
+    @Test
+    void neverDeletesRegularFileOrMissingPath() throws IOException {
+        Path file = Files.createFile(directory.resolve("app.conf"));
+        try {
+            assertTrue(release(null, file).failed());
+            assertTrue(Files.exists(file));
+            assertTrue(release(null, directory.resolve("missing.sock")).succeeded());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
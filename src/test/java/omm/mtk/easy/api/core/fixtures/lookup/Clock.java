@@ -0,0 +1,5 @@
+package omm.mtk.easy.api.core.fixtures.lookup;
+
+public interface Clock {
+    long now();
+}
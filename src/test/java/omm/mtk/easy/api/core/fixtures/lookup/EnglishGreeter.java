@@ -0,0 +1,14 @@
+package omm.mtk.easy.api.core.fixtures.lookup;
+
+import omm.mtk.easy.api.annotation.Component;
+
+import java.io.Serializable;
+
+@Component
+public class EnglishGreeter implements Greeter, Serializable {
+    
+    @Override
+    public String greet(String name) {
+        return "Hello " + name;
+    }
+}
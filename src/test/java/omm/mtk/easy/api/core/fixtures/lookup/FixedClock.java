@@ -0,0 +1,12 @@
+package omm.mtk.easy.api.core.fixtures.lookup;
+
+import omm.mtk.easy.api.annotation.Component;
+
+@Component
+public class FixedClock implements Clock {
+    
+    @Override
+    public long now() {
+        return 0;
+    }
+}
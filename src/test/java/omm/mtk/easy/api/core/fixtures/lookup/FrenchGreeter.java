@@ -0,0 +1,16 @@
+package omm.mtk.easy.api.core.fixtures.lookup;
+
+import omm.mtk.easy.api.annotation.Component;
+import omm.mtk.easy.api.annotation.Scope;
+
+import java.io.Serializable;
+
+@Component
+@Scope(Scope.PROTOTYPE)
+public class FrenchGreeter implements Greeter, Serializable, Cloneable {
+    
+    @Override
+    public String greet(String name) {
+        return "Bonjour " + name;
+    }
+}
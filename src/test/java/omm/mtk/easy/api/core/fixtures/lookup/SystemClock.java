@@ -0,0 +1,14 @@
+package omm.mtk.easy.api.core.fixtures.lookup;
+
+import omm.mtk.easy.api.annotation.Component;
+import omm.mtk.easy.api.annotation.Primary;
+
+@Component
+@Primary
+public class SystemClock implements Clock {
+    
+    @Override
+    public long now() {
+        return System.currentTimeMillis();
+    }
+}
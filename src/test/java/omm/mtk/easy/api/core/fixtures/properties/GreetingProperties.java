@@ -0,0 +1,15 @@
+package omm.mtk.easy.api.core.fixtures.properties;
+
+import omm.mtk.easy.api.annotation.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "greeting")
+public class GreetingProperties {
+    private String message;
+    private int maxLength;
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public int getMaxLength() { return maxLength; }
+    public void setMaxLength(int maxLength) { this.maxLength = maxLength; }
+}
@@ -0,0 +1,24 @@
+package omm.mtk.easy.api.core.fixtures.scan;
+
+import omm.mtk.easy.api.annotation.Component;
+import omm.mtk.easy.api.annotation.Service;
+
+@Service
+public class ScannedService {
+    
+    public Runnable anonymous() {
+        return new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+    }
+    
+    @Component
+    public static class StaticNested {
+    }
+    
+    @Component
+    public class Inner {
+    }
+}